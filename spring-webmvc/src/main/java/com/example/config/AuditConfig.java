@@ -0,0 +1,203 @@
+package com.example.config;
+
+import com.example.repository.LogRepository;
+import com.example.service.archive.LogArchive;
+import com.example.service.audit.ActionFailureRates;
+import com.example.service.audit.AuditOverflowPolicy;
+import com.example.service.audit.AuditJournalLoader;
+import com.example.service.audit.AuditSink;
+import com.example.service.audit.BatchingAuditSink;
+import com.example.service.audit.JournalAuditSink;
+import com.example.service.audit.LogActionDictionary;
+import com.example.service.audit.LogPartitionManager;
+import com.example.service.audit.RollupAuditSink;
+import com.example.service.audit.TransactionalAuditSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Configuration class for the audit log sink used by UniversityService.
+ *
+ * <p>
+ * With {@code university.audit.mode=batched} (the default) audit events are queued and written in JDBC batches on a background worker.
+ * With {@code university.audit.mode=direct} every event is written in its own REQUIRES_NEW transaction, as before.
+ * With {@code university.audit.mode=journal} events are appended to a memory-mapped journal on local disk that is loaded with COPY
+ * in the background, so that they survive a crash of the JVM.
+ * Successes of the actions listed in {@code university.audit.rollup.actions} are only counted per minute by a {@link RollupAuditSink}
+ * in front of any of these sinks; their failures, and all events of other actions, keep their full rows.
+ * </p>
+ *
+ * <p>
+ * Audit rows encode their action through a shared {@link LogActionDictionary}.
+ * The daily partitions of university.log_records are created ahead and dropped after the retention period by a scheduled {@link LogPartitionManager}.
+ * With {@code university.logs.archive.enabled=true} (the default) their rows are first written to the {@link LogArchive} on local disk.
+ * </p>
+ */
+@Configuration
+@EnableScheduling
+@PropertySource({"classpath:application.properties"})
+public class AuditConfig {
+
+    @Value("${university.audit.mode:batched}")
+    private String mode;
+
+    @Value("${university.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${university.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${university.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${university.audit.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${university.audit.overflow-policy:BLOCK}")
+    private String overflowPolicy;
+
+    @Value("${university.audit.journal.directory:audit-journal}")
+    private String journalDirectory;
+
+    @Value("${university.audit.journal.segment-size-bytes:16777216}")
+    private int journalSegmentSize;
+
+    @Value("${university.audit.journal.ship-interval-ms:1000}")
+    private long journalShipIntervalMs;
+
+    @Value("${university.audit.rollup.actions:}")
+    private String rollupActions;
+
+    @Value("${university.logs.partitions.precreate-days:7}")
+    private int partitionPrecreateDays;
+
+    @Value("${university.logs.partitions.retention-days:90}")
+    private int partitionRetentionDays;
+
+    @Value("${university.logs.archive.enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${university.logs.archive.directory:log-archive}")
+    private String archiveDirectory;
+
+    @Value("${university.logs.archive.block-rows:4096}")
+    private int archiveBlockRows;
+
+    @Value("${university.logs.archive.max-segment-rows:5000000}")
+    private long archiveMaxSegmentRows;
+
+    /**
+     * Bean definition for the JdbcTemplate.
+     *
+     * @param dataSource the data source bean
+     * @return JdbcTemplate bean
+     */
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Bean definition for the LogActionDictionary.
+     *
+     * @param jdbcTemplate the JDBC template used to look up and register action codes
+     * @param transactionManager the transaction manager that commits every new action code on its own
+     * @return LogActionDictionary bean
+     */
+    @Bean
+    public LogActionDictionary logActionDictionary(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new LogActionDictionary(jdbcTemplate, transactionManager);
+    }
+
+    /**
+     * Bean definition for the AuditSink.
+     *
+     * <p>
+     * The batched sink is drained on context shutdown, so no queued event is lost on a graceful undeploy.
+     * The journal sink seals its active segment on shutdown and loads whatever was not shipped on the next start.
+     * When rollup actions are configured the sink is wrapped in a {@link RollupAuditSink}, which flushes its counters on shutdown too.
+     * </p>
+     *
+     * @param jdbcTemplate the JDBC template used for batch inserts
+     * @param logRepository the log repository used by the direct sink
+     * @param logActionDictionary the dictionary that encodes the action of every event
+     * @param transactionManager the transaction manager used by the direct sink
+     * @return AuditSink bean
+     */
+    @Bean
+    public AuditSink auditSink(JdbcTemplate jdbcTemplate, LogRepository logRepository, LogActionDictionary logActionDictionary,
+                               PlatformTransactionManager transactionManager) {
+        AuditSink sink;
+        if ("direct".equalsIgnoreCase(mode)) {
+            sink = new TransactionalAuditSink(logRepository, logActionDictionary, transactionManager);
+        } else if ("journal".equalsIgnoreCase(mode)) {
+            sink = new JournalAuditSink(Path.of(journalDirectory), journalSegmentSize,
+                    new AuditJournalLoader(jdbcTemplate, transactionManager, logActionDictionary), Duration.ofMillis(journalShipIntervalMs));
+        } else {
+            sink = new BatchingAuditSink(jdbcTemplate, transactionManager, logActionDictionary, queueCapacity, batchSize,
+                    Duration.ofMillis(flushIntervalMs), Duration.ofMillis(offerTimeoutMs),
+                    AuditOverflowPolicy.valueOf(overflowPolicy.trim().toUpperCase()));
+        }
+
+        Set<String> actions = Arrays.stream(rollupActions.split(","))
+                .map(String::trim)
+                .filter(action -> !action.isEmpty())
+                .collect(Collectors.toSet());
+        return actions.isEmpty() ? sink : new RollupAuditSink(sink, jdbcTemplate, logActionDictionary, actions);
+    }
+
+    /**
+     * Bean definition for the ActionFailureRates.
+     *
+     * @param jdbcTemplate the JDBC template used for the rate query
+     * @param transactionManager the transaction manager that runs the query read-only
+     * @param auditSink the audit sink, whose unflushed rollup counts are included when it is a RollupAuditSink
+     * @return ActionFailureRates bean
+     */
+    @Bean
+    public ActionFailureRates actionFailureRates(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, AuditSink auditSink) {
+        return new ActionFailureRates(jdbcTemplate, transactionManager,
+                auditSink instanceof RollupAuditSink rollupAuditSink ? rollupAuditSink : null);
+    }
+
+    /**
+     * Bean definition for the LogArchive.
+     *
+     * @param jdbcTemplate the JDBC template used to stream expired rows out of the database
+     * @return LogArchive bean
+     */
+    @Bean
+    public LogArchive logArchive(JdbcTemplate jdbcTemplate) {
+        return new LogArchive(Path.of(archiveDirectory), jdbcTemplate, archiveBlockRows, archiveMaxSegmentRows);
+    }
+
+    /**
+     * Bean definition for the LogPartitionManager.
+     *
+     * <p>
+     * Maintenance runs once on startup and then every {@code university.logs.partitions.check-interval-ms}.
+     * </p>
+     *
+     * @param jdbcTemplate the JDBC template used for the partition DDL
+     * @param transactionManager the transaction manager that runs every partition change in its own transaction
+     * @param logArchive the archive that expired rows are written to before they are dropped, when archiving is enabled
+     * @return LogPartitionManager bean
+     */
+    @Bean
+    public LogPartitionManager logPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, LogArchive logArchive) {
+        return new LogPartitionManager(jdbcTemplate, transactionManager, archiveEnabled ? logArchive : null,
+                partitionPrecreateDays, partitionRetentionDays);
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.config;
 
+import com.example.config.routing.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
@@ -13,7 +19,10 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.persistence.EntityManagerFactory;
+import javax.persistence.SharedCacheMode;
 import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Properties;
 
 /**
  * Configuration class for setting up persistence-related beans and properties.
@@ -22,6 +31,20 @@ import javax.sql.DataSource;
  * This class configures the data source, entity manager factory, and transaction manager for JPA.
  * It reads database connection properties from an external properties file.
  * </p>
+ *
+ * <p>
+ * Connections are pooled by HikariCP, so transactions reuse open physical connections instead of connecting to the database every time.
+ * When {@code university.datasource.replica.url} is set, read-only transactions are routed to a second pool on the read replica.
+ * </p>
+ *
+ * <p>
+ * The Hibernate second-level cache and query cache are backed by JCache (Ehcache 3, regions sized in ehcache.xml).
+ * Only entities annotated with {@code @Cacheable} are cached.
+ * </p>
+ *
+ * <p>
+ * The university schema is created and changed by the Flyway migrations in {@code db/migration}; Hibernate only validates it.
+ * </p>
  */
 @Configuration
 @EnableTransactionManagement
@@ -41,6 +64,60 @@ public class PersistenceConfig {
     @Value("${spring.datasource.password}")
     private String dbPassword;
 
+    @Value("${spring.datasource.hikari.pool-name:university-pool}")
+    private String poolName;
+
+    @Value("${spring.datasource.hikari.minimum-idle:5}")
+    private int poolMinimumIdle;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:20}")
+    private int poolMaximumSize;
+
+    @Value("${spring.datasource.hikari.connection-timeout:3000}")
+    private long poolConnectionTimeoutMs;
+
+    @Value("${spring.datasource.hikari.idle-timeout:600000}")
+    private long poolIdleTimeoutMs;
+
+    @Value("${spring.datasource.hikari.max-lifetime:1800000}")
+    private long poolMaxLifetimeMs;
+
+    @Value("${spring.datasource.hikari.leak-detection-threshold:0}")
+    private long poolLeakDetectionThresholdMs;
+
+    @Value("${spring.datasource.hikari.register-mbeans:false}")
+    private boolean poolRegisterMbeans;
+
+    @Value("${spring.datasource.hikari.prepare-threshold:5}")
+    private int prepareThreshold;
+
+    @Value("${spring.datasource.hikari.prepared-statement-cache-queries:256}")
+    private int preparedStatementCacheQueries;
+
+    @Value("${spring.datasource.hikari.prepared-statement-cache-size-mib:5}")
+    private int preparedStatementCacheSizeMib;
+
+    @Value("${spring.datasource.hikari.rewrite-batched-inserts:true}")
+    private boolean rewriteBatchedInserts;
+
+    @Value("${university.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${university.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${university.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${university.datasource.replica.maximum-pool-size:10}")
+    private int replicaPoolMaximumSize;
+
+    @Value("${university.datasource.replica.connection-timeout:1000}")
+    private long replicaPoolConnectionTimeoutMs;
+
+    @Value("${university.datasource.replica.retry-after-ms:30000}")
+    private long replicaRetryAfterMs;
+
     @Value("${spring.jpa.properties.hibernate.dialect}")
     private String hibernateDialect;
 
@@ -50,36 +127,137 @@ public class PersistenceConfig {
     @Value("${spring.jpa.hibernate.ddl-auto}")
     private String hibernateHbm2ddlAuto;
 
+    @Value("${spring.flyway.schemas:university}")
+    private String flywaySchemas;
+
+    @Value("${spring.flyway.locations:classpath:db/migration}")
+    private String flywayLocations;
+
+    @Value("${spring.flyway.baseline-on-migrate:true}")
+    private boolean flywayBaselineOnMigrate;
+
+    @Value("${spring.flyway.baseline-version:0}")
+    private String flywayBaselineVersion;
+
+    @Value("${spring.jpa.properties.hibernate.cache.use_second_level_cache:false}")
+    private boolean useSecondLevelCache;
+
+    @Value("${spring.jpa.properties.hibernate.cache.use_query_cache:false}")
+    private boolean useQueryCache;
+
+    @Value("${spring.jpa.properties.hibernate.cache.region.factory_class:jcache}")
+    private String cacheRegionFactory;
+
+    @Value("${spring.jpa.properties.hibernate.javax.cache.provider:org.ehcache.jsr107.EhcacheCachingProvider}")
+    private String cacheProvider;
+
+    @Value("${spring.jpa.properties.hibernate.javax.cache.uri:ehcache.xml}")
+    private String cacheUri;
+
+    @Value("${spring.jpa.properties.hibernate.generate_statistics:false}")
+    private boolean generateStatistics;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
+    @Value("${spring.jpa.properties.hibernate.order_inserts:true}")
+    private boolean orderInserts;
+
+    @Value("${spring.jpa.properties.hibernate.order_updates:true}")
+    private boolean orderUpdates;
+
+    /**
+     * Bean definition for the read/write routing DataSource.
+     *
+     * <p>
+     * This method sets up a HikariCP connection pool for the primary database using the properties defined in the application.properties file.
+     * The pool keeps between minimum-idle and maximum-pool-size connections, fails a request that waits longer than connection-timeout,
+     * and logs connections held longer than leak-detection-threshold. Prepared statements are cached per connection by the PostgreSQL driver,
+     * and the pool metrics are published as JMX MBeans when register-mbeans is enabled.
+     * When a replica url is configured, a second, read-only pool is set up for it and connections of read-only transactions are taken from it,
+     * falling back to the primary while the replica is unavailable.
+     * Both pools are closed together with the application context.
+     * </p>
+     *
+     * @return ReadWriteRoutingDataSource bean
+     */
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource() {
+        HikariConfig primaryConfig = poolConfig(poolName, dbUrl, dbUsername, dbPassword);
+        primaryConfig.setMinimumIdle(poolMinimumIdle);
+        primaryConfig.setMaximumPoolSize(poolMaximumSize);
+        primaryConfig.setConnectionTimeout(poolConnectionTimeoutMs);
+        HikariDataSource primary = new HikariDataSource(primaryConfig);
+
+        HikariDataSource replica = null;
+        if (!replicaUrl.isBlank()) {
+            HikariConfig replicaConfig = poolConfig(poolName + "-replica", replicaUrl, replicaUsername, replicaPassword);
+            replicaConfig.setMinimumIdle(Math.min(poolMinimumIdle, replicaPoolMaximumSize));
+            replicaConfig.setMaximumPoolSize(replicaPoolMaximumSize);
+            replicaConfig.setConnectionTimeout(replicaPoolConnectionTimeoutMs);
+            replicaConfig.setReadOnly(true);
+            replica = new HikariDataSource(replicaConfig);
+        }
+
+        return new ReadWriteRoutingDataSource(primary, replica, replicaRetryAfterMs);
+    }
+
     /**
      * Bean definition for the DataSource.
      *
      * <p>
-     * This method sets up the data source using the properties defined in the application.properties file.
+     * This method wraps the routing data source in a LazyConnectionDataSourceProxy, so the physical connection is only fetched at the first statement,
+     * once the read-only flag of the transaction is known.
      * </p>
      *
+     * @param routingDataSource the routing data source bean
      * @return DataSource bean
      */
     @Bean
-    public DataSource dataSource() {
-        DriverManagerDataSource dataSource = new DriverManagerDataSource();
-        dataSource.setDriverClassName(dbDriver);
-        dataSource.setUrl(dbUrl);
-        dataSource.setUsername(dbUsername);
-        dataSource.setPassword(dbPassword);
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
         return dataSource;
     }
 
+    /**
+     * Bean definition for Flyway.
+     *
+     * <p>
+     * This method sets up Flyway to apply the pending migrations from {@code db/migration} when the application starts,
+     * before the entity manager factory validates the schema. A database that was created by {@code ddl-auto=update}
+     * and has no migration history yet is baselined at version 0, so the idempotent V1 migration still runs against it.
+     * </p>
+     *
+     * @param dataSource the data source bean
+     * @return Flyway bean
+     */
+    @Bean(initMethod = "migrate")
+    public Flyway flyway(DataSource dataSource) {
+        return Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(flywaySchemas.split(","))
+                .locations(flywayLocations.split(","))
+                .baselineOnMigrate(flywayBaselineOnMigrate)
+                .baselineVersion(flywayBaselineVersion)
+                .load();
+    }
+
     /**
      * Bean definition for the EntityManagerFactory.
      *
      * <p>
      * This method sets up the entity manager factory using the configured data source and Hibernate properties.
+     * It is created after the Flyway migrations have run.
      * </p>
      *
      * @param dataSource the data source bean
      * @return EntityManagerFactory bean
      */
     @Bean
+    @DependsOn("flyway")
     public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
         em.setDataSource(dataSource);
@@ -88,12 +266,77 @@ public class PersistenceConfig {
         HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
         vendorAdapter.setDatabasePlatform(hibernateDialect);
         vendorAdapter.setShowSql(hibernateShowSql);
-        vendorAdapter.setGenerateDdl("update".equalsIgnoreCase(hibernateHbm2ddlAuto));
         em.setJpaVendorAdapter(vendorAdapter);
+        em.setSharedCacheMode(SharedCacheMode.ENABLE_SELECTIVE);
+        em.setJpaProperties(hibernateProperties());
 
         return em;
     }
 
+    /**
+     * HikariCP settings shared by the primary and the replica pool.
+     *
+     * @return HikariConfig with the connection, lifetime, leak detection and statement cache settings
+     */
+    private HikariConfig poolConfig(String name, String url, String username, String password) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setDriverClassName(dbDriver);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+
+        config.setIdleTimeout(poolIdleTimeoutMs);
+        config.setMaxLifetime(poolMaxLifetimeMs);
+        config.setLeakDetectionThreshold(poolLeakDetectionThresholdMs);
+        config.setRegisterMbeans(poolRegisterMbeans);
+
+        // Statement caching is done by PgJDBC: statements run prepareThreshold times become server-side prepared statements
+        config.addDataSourceProperty("prepareThreshold", prepareThreshold);
+        config.addDataSourceProperty("preparedStatementCacheQueries", preparedStatementCacheQueries);
+        config.addDataSourceProperty("preparedStatementCacheSizeMiB", preparedStatementCacheSizeMib);
+
+        // Batched inserts are sent as multi-row INSERT statements
+        config.addDataSourceProperty("reWriteBatchedInserts", rewriteBatchedInserts);
+        return config;
+    }
+
+    /**
+     * Additional Hibernate properties for the EntityManagerFactory.
+     *
+     * <p>
+     * This method configures schema validation, the second-level cache, the query cache and the collection of statistics.
+     * Session metrics are not logged, since statistics are read through the cache statistics endpoint instead.
+     * </p>
+     *
+     * <p>
+     * Entity inserts and updates are sent in JDBC batches of {@code hibernate.jdbc.batch_size}, ordered by table so that
+     * consecutive statements can share a batch. Versioned entities are batched as well, since PgJDBC reports per-row update counts.
+     * </p>
+     *
+     * @return Hibernate properties
+     */
+    private Properties hibernateProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", hibernateHbm2ddlAuto);
+        // university.logs is a partitioned table, which the PostgreSQL driver reports as PARTITIONED TABLE
+        properties.setProperty("hibernate.hbm2ddl.extra_physical_table_types", "PARTITIONED TABLE");
+        properties.setProperty("hibernate.cache.use_second_level_cache", String.valueOf(useSecondLevelCache));
+        properties.setProperty("hibernate.cache.use_query_cache", String.valueOf(useQueryCache));
+        if (useSecondLevelCache) {
+            properties.setProperty("hibernate.cache.region.factory_class", cacheRegionFactory);
+            properties.setProperty("hibernate.javax.cache.provider", cacheProvider);
+            properties.setProperty("hibernate.javax.cache.uri", cacheUri);
+        }
+        properties.setProperty("hibernate.generate_statistics", String.valueOf(generateStatistics));
+        properties.setProperty("hibernate.session.events.log", "false");
+        properties.setProperty("hibernate.jdbc.batch_size", String.valueOf(jdbcBatchSize));
+        properties.setProperty("hibernate.order_inserts", String.valueOf(orderInserts));
+        properties.setProperty("hibernate.order_updates", String.valueOf(orderUpdates));
+        properties.setProperty("hibernate.jdbc.batch_versioned_data", "true");
+        return properties;
+    }
+
     /**
      * Bean definition for the Spring Transaction Manager.
      *
@@ -2,6 +2,7 @@ package com.example.config;
 
 import com.example.repository.UserRepository;
 import com.example.service.CustomUserDetailsService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -23,6 +24,12 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @EnableWebSecurity
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
+    @Value("${university.user-cache.maximum-size:10000}")
+    private long userCacheMaximumSize;
+
+    @Value("${university.user-cache.ttl-seconds:300}")
+    private long userCacheTtlSeconds;
+
     /**
      * Configures HTTP security for the application.
      *
@@ -80,13 +87,15 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
      *
      * <p>
      * This method returns a {@link UserRepository} bean for accessing user data.
+     * Users are cached in-process, bounded by {@code university.user-cache.maximum-size} entries
+     * and reloaded {@code university.user-cache.ttl-seconds} after being loaded.
      * </p>
      *
      * @return the {@link UserRepository} bean
      */
     @Bean
     public UserRepository userDetailsRepository() {
-        return new UserRepository();
+        return new UserRepository(userCacheMaximumSize, userCacheTtlSeconds);
     }
 
     /**
@@ -1,9 +1,13 @@
 package com.example.config;
 
+import com.example.config.bulk.BulkWriteInterceptor;
+import com.example.config.routing.ReadYourWritesInterceptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import nz.net.ultraq.thymeleaf.layoutdialect.LayoutDialect;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.servlet.ViewResolver;
 import org.springframework.web.servlet.config.annotation.*;
 import org.thymeleaf.extras.springsecurity5.dialect.SpringSecurityDialect;
@@ -62,6 +66,7 @@ public class WebConfig implements WebMvcConfigurer {
     private static final String TEMPLATE_RESOLVER_SUFFIX = ".html";
     private static final String TEMPLATE_RESOLVER_TEMPLATE_MODE = "HTML5";
     private static final String TEMPLATE_RESOLVER_CHAR_ENCODING = DEFAULT_CHAR_ENCODING;
+    private static final long ASYNC_REQUEST_TIMEOUT_MS = 30 * 60 * 1000L;
 
     /**
      * Register view controllers for simple URL mappings.
@@ -78,6 +83,22 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addRedirectViewController("/account/logout", "/logout");
     }
 
+    /**
+     * Register handler interceptors.
+     *
+     * <p>
+     * Requests sent with the X-Read-Your-Writes: true header read from the primary database instead of the read replica.
+     * Requests sent with the X-Bulk-Write: true header use larger JDBC batches and flush entity changes only at commit.
+     * </p>
+     *
+     * @param registry the InterceptorRegistry to use
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor());
+        registry.addInterceptor(new BulkWriteInterceptor());
+    }
+
     /**
      * Configure the locations of static resources such as CSS, JavaScript, and images.
      *
@@ -89,6 +110,35 @@ public class WebConfig implements WebMvcConfigurer {
                 .addResourceLocations("classpath:/static/");
     }
 
+    /**
+     * Configure asynchronous request processing.
+     *
+     * <p>
+     * The NDJSON export endpoints return a StreamingResponseBody, which is written on an async request thread.
+     * The timeout is raised so that long-running exports are not cut off by the container default.
+     * </p>
+     *
+     * @param configurer the AsyncSupportConfigurer to use
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(ASYNC_REQUEST_TIMEOUT_MS);
+    }
+
+    /**
+     * Configures the Jackson ObjectMapper shared by the application.
+     *
+     * <p>
+     * The mapper is used to write the NDJSON exports row by row.
+     * </p>
+     *
+     * @return the configured ObjectMapper bean
+     */
+    @Bean
+    public ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
     /**
      * Configures the Thymeleaf template resolver.
      *
@@ -0,0 +1,65 @@
+package com.example.config.bulk;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Requests bulk write mode for requests that carry {@value #HEADER}: true, e.g. registrar import jobs.
+ * <p>
+ * Like {@link com.example.config.routing.ReadYourWritesInterceptor}, async requests release the container thread when concurrent
+ * handling starts and request bulk mode on the thread that runs their body, so the mode never outlives the request on a pooled thread.
+ */
+public class BulkWriteInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String HEADER = "X-Bulk-Write";
+
+    private static final String REQUESTED_ATTRIBUTE = BulkWriteInterceptor.class.getName() + ".REQUESTED";
+
+    private static final CallableProcessingInterceptor ASYNC_BULK_WRITE = new CallableProcessingInterceptor() {
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            BulkWriteMode.request();
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            BulkWriteMode.release();
+        }
+    };
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) return true;
+
+        if (Boolean.parseBoolean(request.getHeader(HEADER))) {
+            BulkWriteMode.request();
+            request.setAttribute(REQUESTED_ATTRIBUTE, Boolean.TRUE);
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(REQUESTED_ATTRIBUTE, ASYNC_BULK_WRITE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private static void release(HttpServletRequest request) {
+        if (request.getAttribute(REQUESTED_ATTRIBUTE) != null) {
+            request.removeAttribute(REQUESTED_ATTRIBUTE);
+            BulkWriteMode.release();
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.example.entity;
 
+import com.example.entity.id.UuidV7Generator;
 import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
@@ -9,20 +14,36 @@ import java.util.UUID;
  * Represents a course entity in the university schema.
  */
 @Entity
-@Table(name = "courses", schema = "university")
+@Table(name = "courses", schema = "university",
+        indexes = {
+                @Index(name = "idx_courses_name_id", columnList = "name, id"),
+                @Index(name = "idx_courses_instructor", columnList = "instructor"),
+                @Index(name = "idx_courses_online", columnList = "online")
+        })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "university.courses")
+@DynamicUpdate // Only changed columns are written
 public class Course {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = UuidV7Generator.NAME)
+    @GenericGenerator(name = UuidV7Generator.NAME, strategy = UuidV7Generator.STRATEGY)
     private UUID id; // Unique identifier for the course
 
     private String name; // Name of the course
     private String instructor; // Instructor of the course
     private String schedule; // Schedule information for the course
-    private int capacity; // Maximum number of students allowed in the course
+    // Seats still open in the course, taken and released atomically by CourseRepository. Never written by entity updates,
+    // since a Course merged or saved after a seat was taken would otherwise write its stale capacity back
+    @Column(updatable = false)
+    private int capacity;
     private boolean online; // Indicates if the course is online or in-person
     private Date startDate; // Start date of the course
 
+    @Version
+    private long version; // Optimistic lock, bumped by entity updates; the seat counter updates in CourseRepository leave it unchanged
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "university.courses.enrollments")
     @OneToMany(mappedBy = "course", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<Enrollment> enrollments; // List of enrollments for the course
 
@@ -83,6 +104,10 @@ public class Course {
         this.startDate = startDate;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public List<Enrollment> getEnrollments() {
         return enrollments;
     }
@@ -1,6 +1,10 @@
 package com.example.entity;
 
+import com.example.entity.id.UuidV7Generator;
 import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 
 import java.util.Date;
 import java.util.UUID;
@@ -9,11 +13,16 @@ import java.util.UUID;
  * Represents an enrollment entity in the university schema.
  */
 @Entity
-@Table(name = "enrollments", schema = "university")
+@Table(name = "enrollments", schema = "university",
+        uniqueConstraints = @UniqueConstraint(name = "uk_enrollments_student_course", columnNames = {"student_id", "course_id"}),
+        indexes = @Index(name = "idx_enrollments_course_id", columnList = "course_id, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "university.enrollments")
 public class Enrollment {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = UuidV7Generator.NAME)
+    @GenericGenerator(name = UuidV7Generator.NAME, strategy = UuidV7Generator.STRATEGY)
     private UUID id; // Unique identifier for the enrollment
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -27,6 +36,9 @@ public class Enrollment {
     private Date enrollmentDate; // Date when the student enrolled in the course
     private int grade; // Grade received by the student in the course
 
+    @Version
+    private long version; // Optimistic lock, also bumped by EnrollmentRepository.adjustGradesForCourse
+
     // Getters and setters
     public UUID getId() {
         return id;
@@ -52,6 +64,10 @@ public class Enrollment {
         this.grade = grade;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public Student getStudent() {
         return student;
     }
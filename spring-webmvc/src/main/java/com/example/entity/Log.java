@@ -1,23 +1,53 @@
 package com.example.entity;
 
+import com.example.entity.id.UuidV7Generator;
 import javax.persistence.*;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.GenericGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
  * Represents a log entity in the university schema.
+ * The table is stored in daily range partitions on timestamp, maintained by LogPartitionManager.
+ * The action is stored as a code from university.log_actions and the outcome as a status plus the text the status does not imply;
+ * the university.logs view shows the rows with the original action and outcome strings.
  */
 @Entity
-@Table(name = "logs", schema = "university")
+@Table(name = "log_records", schema = "university",
+        indexes = {
+                @Index(name = "idx_log_records_timestamp_id", columnList = "timestamp, id"),
+                @Index(name = "idx_log_records_action_timestamp_id", columnList = "action_code, timestamp, id"),
+                @Index(name = "idx_log_records_status_timestamp_id", columnList = "status, timestamp, id")
+        })
 public class Log {
 
+    public static final short STATUS_SUCCESS = 0; // Outcome "Success"
+    public static final short STATUS_FAILURE = 1; // Outcome "Failure: " + message
+    public static final short STATUS_OTHER = 2; // Any other outcome, kept verbatim in message
+
+    private static final String SUCCESS = "Success";
+    private static final String FAILURE_PREFIX = "Failure: ";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = UuidV7Generator.NAME)
+    @GenericGenerator(name = UuidV7Generator.NAME, strategy = UuidV7Generator.STRATEGY)
     private UUID id; // Unique identifier for the log entry
 
-    private String action; // Action that was logged
-    private String outcome; // Outcome or result of the action
+    @Formula("(SELECT a.name FROM university.log_actions a WHERE a.code = action_code)")
+    private String action; // Action that was logged; set in memory for new events, whose code is assigned by the AuditSink
+
+    @Column(name = "action_code", nullable = false)
+    private short actionCode; // Code of the action in university.log_actions
+
+    @Column(nullable = false)
+    private short status; // Outcome status, one of the STATUS_ constants
+
+    @Column(columnDefinition = "text")
+    private String message; // Failure message, or the whole outcome for STATUS_OTHER
+
+    @Column(nullable = false)
     private LocalDateTime timestamp; // Timestamp when the action occurred
 
     // Constructors, getters, and setters
@@ -25,7 +55,8 @@ public class Log {
 
     public Log(String action, String outcome, LocalDateTime timestamp) {
         this.action = action;
-        this.outcome = outcome;
+        this.status = statusOf(outcome);
+        this.message = messageOf(outcome);
         this.timestamp = timestamp;
     }
 
@@ -46,12 +77,60 @@ public class Log {
         this.action = action;
     }
 
+    public short getActionCode() {
+        return actionCode;
+    }
+
+    public void setActionCode(short actionCode) {
+        this.actionCode = actionCode;
+    }
+
+    public short getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
     public String getOutcome() {
-        return outcome;
+        return outcomeOf(status, message);
     }
 
     public void setOutcome(String outcome) {
-        this.outcome = outcome;
+        this.status = statusOf(outcome);
+        this.message = messageOf(outcome);
+    }
+
+    /**
+     * The outcome string a status and message were encoded from.
+     */
+    public static String outcomeOf(short status, String message) {
+        return switch (status) {
+            case STATUS_SUCCESS -> SUCCESS;
+            case STATUS_FAILURE -> FAILURE_PREFIX + message;
+            default -> message;
+        };
+    }
+
+    /**
+     * The status an outcome string is encoded as.
+     */
+    private static short statusOf(String outcome) {
+        if (SUCCESS.equals(outcome)) return STATUS_SUCCESS;
+        if (outcome != null && outcome.startsWith(FAILURE_PREFIX)) return STATUS_FAILURE;
+        return STATUS_OTHER;
+    }
+
+    /**
+     * The message kept for an outcome string; null for a plain success.
+     */
+    private static String messageOf(String outcome) {
+        return switch (statusOf(outcome)) {
+            case STATUS_SUCCESS -> null;
+            case STATUS_FAILURE -> outcome.substring(FAILURE_PREFIX.length());
+            default -> outcome;
+        };
     }
 
     public LocalDateTime getTimestamp() {
@@ -61,4 +140,4 @@ public class Log {
     public void setTimestamp(LocalDateTime timestamp) {
         this.timestamp = timestamp;
     }
-}
+}
\ No newline at end of file
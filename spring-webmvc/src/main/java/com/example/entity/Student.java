@@ -1,6 +1,10 @@
 package com.example.entity;
 
+import com.example.entity.id.UuidV7Generator;
 import javax.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -12,11 +16,24 @@ import java.util.UUID;
  * Represents a student entity in the university schema.
  */
 @Entity
-@Table(name = "students", schema = "university")
+@Table(name = "students", schema = "university",
+        indexes = {
+                @Index(name = "idx_students_name_id", columnList = "name, id"),
+                @Index(name = "idx_students_major", columnList = "major"),
+                @Index(name = "idx_students_year", columnList = "year"),
+                @Index(name = "idx_students_international", columnList = "international")
+        })
+@NamedEntityGraph(name = Student.WITH_ENROLLMENTS, attributeNodes = @NamedAttributeNode("enrollments"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "university.students")
 public class Student {
 
+    // Entity graph that callers opt into when they need the enrollments loaded together with the student
+    public static final String WITH_ENROLLMENTS = "student-with-enrollments";
+
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = UuidV7Generator.NAME)
+    @GenericGenerator(name = UuidV7Generator.NAME, strategy = UuidV7Generator.STRATEGY)
     private UUID id; // Unique identifier for the student
 
     private String name; // Name of the student
@@ -34,7 +51,7 @@ public class Student {
     @NotNull
     private boolean international; // Indicates if the student is an international student
 
-    @OneToMany(mappedBy = "student", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "student", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<Enrollment> enrollments; // List of courses the student is enrolled in
 
     // Getters and setters
@@ -0,0 +1,27 @@
+package com.example.entity.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.io.Serializable;
+
+/**
+ * Hibernate identifier generator that assigns a {@link UuidV7} to new entities.
+ *
+ * <p>
+ * Entities use it through {@code @GeneratedValue(generator = UuidV7Generator.NAME)} together with a
+ * {@code @GenericGenerator(name = UuidV7Generator.NAME, strategy = UuidV7Generator.STRATEGY)} declaration.
+ * </p>
+ */
+public class UuidV7Generator implements IdentifierGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String NAME = "uuid-v7";
+    public static final String STRATEGY = "com.example.entity.id.UuidV7Generator";
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return UuidV7.generate();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.model.university;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing.
+ * <p>
+ * nextCursor is the token to pass back for the following page and is null on the last page.
+ * total is only filled in when the caller asked for it, since counting all rows costs as much as the deepest page.
+ */
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+    private final Long total;
+
+    public CursorPage(List<T> items, String nextCursor, Long total) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.total = total;
+    }
+
+    /**
+     * Build a page from rows fetched with a limit of {@code size + 1}: the extra row only signals that another page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, PageCursor> cursorOf, Long total) {
+        if (rows.size() <= size) return new CursorPage<>(rows, null, total);
+
+        List<T> items = new ArrayList<>(rows.subList(0, size));
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)).encode(), total);
+    }
+
+    // Getters
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public Long getTotal() { return total; }
+}
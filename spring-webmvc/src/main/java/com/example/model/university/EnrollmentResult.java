@@ -0,0 +1,31 @@
+package com.example.model.university;
+
+import java.util.UUID;
+
+public class EnrollmentResult {
+
+    public enum Status {
+        ENROLLED,
+        INVALID_REQUEST,
+        DUPLICATE_IN_REQUEST,
+        STUDENT_NOT_FOUND,
+        COURSE_NOT_FOUND,
+        ALREADY_ENROLLED,
+        COURSE_FULL
+    }
+
+    private final UUID studentId;
+    private final UUID courseId;
+    private final Status status;
+
+    public EnrollmentResult(UUID studentId, UUID courseId, Status status) {
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.status = status;
+    }
+
+    // Getters
+    public UUID getStudentId() { return studentId; }
+    public UUID getCourseId() { return courseId; }
+    public Status getStatus() { return status; }
+}
@@ -0,0 +1,44 @@
+package com.example.model.university;
+
+import com.example.entity.Log;
+
+import java.time.LocalDateTime;
+
+/**
+ * Criteria of an audit log query; every criterion left null matches all rows.
+ * The time range includes {@code from} and excludes {@code to}.
+ */
+public class LogFilter {
+
+    public enum Status {
+        SUCCESS(Log.STATUS_SUCCESS),
+        FAILURE(Log.STATUS_FAILURE),
+        OTHER(Log.STATUS_OTHER);
+
+        private final short code;
+
+        Status(short code) {
+            this.code = code;
+        }
+
+        public short getCode() { return code; }
+    }
+
+    private final String action;
+    private final Status status;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    public LogFilter(String action, Status status, LocalDateTime from, LocalDateTime to) {
+        this.action = action;
+        this.status = status;
+        this.from = from;
+        this.to = to;
+    }
+
+    // Getters
+    public String getAction() { return action; }
+    public Status getStatus() { return status; }
+    public LocalDateTime getFrom() { return from; }
+    public LocalDateTime getTo() { return to; }
+}
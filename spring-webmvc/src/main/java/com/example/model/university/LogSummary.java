@@ -0,0 +1,35 @@
+package com.example.model.university;
+
+import com.example.entity.Log;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat, read-only view of an audit log row with its action name and outcome decoded.
+ */
+public class LogSummary {
+
+    private final UUID id;
+    private final String action;
+    private final String outcome;
+    private final LocalDateTime timestamp;
+
+    public LogSummary(UUID id, String action, short status, String message, LocalDateTime timestamp) {
+        this.id = id;
+        this.action = action;
+        this.outcome = Log.outcomeOf(status, message);
+        this.timestamp = timestamp;
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+    public String getAction() { return action; }
+    public String getOutcome() { return outcome; }
+
+    // Written as an ISO-8601 string; the ObjectMapper has no java.time module
+    @JsonSerialize(using = ToStringSerializer.class)
+    public LocalDateTime getTimestamp() { return timestamp; }
+}
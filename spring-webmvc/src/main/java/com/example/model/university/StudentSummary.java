@@ -0,0 +1,33 @@
+package com.example.model.university;
+
+import java.util.UUID;
+
+/**
+ * Flat, read-only view of a student, loaded by JPQL constructor expressions without touching the Student entity.
+ */
+public class StudentSummary {
+
+    private final UUID id;
+    private final String name;
+    private final String email;
+    private final String major;
+    private final int year;
+    private final boolean international;
+
+    public StudentSummary(UUID id, String name, String email, String major, int year, boolean international) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.major = major;
+        this.year = year;
+        this.international = international;
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+    public String getName() { return name; }
+    public String getEmail() { return email; }
+    public String getMajor() { return major; }
+    public int getYear() { return year; }
+    public boolean isInternational() { return international; }
+}
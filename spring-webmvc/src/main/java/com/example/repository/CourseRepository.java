@@ -2,39 +2,110 @@ package com.example.repository;
 
 
 import com.example.entity.Course;
+import com.example.model.university.CatalogCourse;
+import com.example.model.university.CourseSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, UUID> {
+public interface CourseRepository extends JpaRepository<Course, UUID>, CourseRepositoryCustom {
 
     // Custom query methods
+    // Results are kept in the Hibernate query cache and invalidated whenever the courses table changes
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     List<Course> findByName(String name);
 
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     List<Course> findByInstructor(String instructor);
 
+    // Not cached: the seat updates of CourseRepositoryCustom change the capacity without Hibernate seeing it
     @Transactional(propagation = Propagation.SUPPORTS, isolation = Isolation.READ_COMMITTED, readOnly = true)
     List<Course> findByCapacityGreaterThanEqual(int capacity);
 
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"))
     List<Course> findByOnline(boolean online);
 
+    // Catalog projections loaded by CourseCatalogCache on a miss
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.example.model.university.CatalogCourse(c.id, c.name, c.instructor, c.schedule, c.online, c.startDate, c.version) FROM Course c WHERE c.id = :id")
+    Optional<CatalogCourse> findCatalogById(@Param("id") UUID id);
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.example.model.university.CatalogCourse(c.id, c.name, c.instructor, c.schedule, c.online, c.startDate, c.version) FROM Course c WHERE c.instructor = :instructor")
+    List<CatalogCourse> findCatalogByInstructor(@Param("instructor") String instructor);
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.example.model.university.CatalogCourse(c.id, c.name, c.instructor, c.schedule, c.online, c.startDate, c.version) FROM Course c WHERE c.online = :online")
+    List<CatalogCourse> findCatalogByOnline(@Param("online") boolean online);
+
+    // Ids among the given ones that belong to an existing course, without loading the entities
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT c.id FROM Course c WHERE c.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT c.capacity FROM Course c WHERE c.id = :id")
+    Optional<Integer> findCapacityById(@Param("id") UUID id);
+
+    // Renames the course only if it still has the given version, and bumps the version; writes no other column, so seats taken
+    // concurrently are kept. Returns 0 when the version has moved on or the course does not exist
+    @Modifying(flushAutomatically = true)
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("UPDATE Course c SET c.name = :name, c.version = c.version + 1 WHERE c.id = :id AND c.version = :version")
+    int rename(@Param("id") UUID id, @Param("name") String name, @Param("version") long version);
+
     // Paging and Sorting
+    // Keyset pagination over (name, id) with nulls last, backed by idx_courses_name_id; the Pageable only bounds the page size,
+    // and since the result is a List no count query is issued
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.example.model.university.CourseSummary(c.id, c.name, c.instructor, c.schedule, c.capacity, c.online, c.startDate) FROM Course c ORDER BY c.name NULLS LAST, c.id")
+    List<CourseSummary> findFirstSummaries(Pageable limit);
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.example.model.university.CourseSummary(c.id, c.name, c.instructor, c.schedule, c.capacity, c.online, c.startDate) FROM Course c " +
+            "WHERE c.name >= :name AND (c.name > :name OR c.id > :id) ORDER BY c.name, c.id")
+    List<CourseSummary> findSummariesAfter(@Param("name") String name, @Param("id") UUID id, Pageable limit);
+
+    // Rows without a name sort last; once the named rows run out, the pages continue with them in id order
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.example.model.university.CourseSummary(c.id, c.name, c.instructor, c.schedule, c.capacity, c.online, c.startDate) FROM Course c WHERE c.name IS NULL ORDER BY c.id")
+    List<CourseSummary> findFirstUnnamedSummaries(Pageable limit);
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.example.model.university.CourseSummary(c.id, c.name, c.instructor, c.schedule, c.capacity, c.online, c.startDate) FROM Course c WHERE c.name IS NULL AND c.id > :id ORDER BY c.id")
+    List<CourseSummary> findUnnamedSummariesAfter(@Param("id") UUID id, Pageable limit);
+
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
     Page<Course> findAll(Pageable pageable);
 
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
     List<Course> findAll(Sort sort);
+
+    // Forward-only cursor for NDJSON export; must be consumed and closed inside the caller's read-only transaction
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.model.university.CourseSummary(c.id, c.name, c.instructor, c.schedule, c.capacity, c.online, c.startDate) " +
+            "FROM Course c")
+    Stream<CourseSummary> streamAll(Sort sort);
 }
 
@@ -0,0 +1,65 @@
+package com.example.repository;
+
+import com.example.entity.Course;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+public class CourseRepositoryImpl implements CourseRepositoryCustom {
+
+    private static final String TAKE_SEATS_SQL = "UPDATE university.courses SET capacity = capacity - ? WHERE id = ? AND capacity >= ?";
+    private static final String RELEASE_SEATS_SQL = "UPDATE university.courses SET capacity = capacity + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public CourseRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int takeSeat(UUID id) {
+        return takeSeats(id, 1);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int takeSeats(UUID id, int seats) {
+        int updated = jdbcTemplate.update(TAKE_SEATS_SQL, seats, id, seats);
+        if (updated > 0) evictCourse(id);
+        return updated;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int releaseSeats(UUID id, int seats) {
+        int updated = jdbcTemplate.update(RELEASE_SEATS_SQL, seats, id);
+        if (updated > 0) evictCourse(id);
+        return updated;
+    }
+
+    // Hibernate does not see JDBC updates, so the cached course is dropped now and again after commit
+    private void evictCourse(UUID id) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Course.class, id);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evictEntityData(Course.class, id);
+                }
+            });
+        }
+    }
+}
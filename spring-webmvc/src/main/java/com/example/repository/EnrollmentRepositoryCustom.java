@@ -0,0 +1,24 @@
+package com.example.repository;
+
+import com.example.model.university.EnrollmentPair;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Custom EnrollmentRepository operations that bypass the persistence context.
+ */
+public interface EnrollmentRepositoryCustom {
+
+    /**
+     * Insert one enrollment per pair, with one multi-row INSERT per chunk of pairs.
+     * <p>
+     * Must run inside the caller's transaction; no Enrollment entities are created in the persistence context.
+     * Pairs whose student is already enrolled in the course, including by a concurrent transaction, are skipped.
+     *
+     * @param pairs          the (student, course) pairs to enroll
+     * @param enrollmentDate the enrollment date stored on every new row
+     * @return the pairs that were skipped because the student was already enrolled
+     */
+    List<EnrollmentPair> insertAll(List<EnrollmentPair> pairs, Date enrollmentDate);
+}
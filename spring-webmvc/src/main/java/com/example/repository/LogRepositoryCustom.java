@@ -0,0 +1,39 @@
+package com.example.repository;
+
+import com.example.model.university.LogFilter;
+import com.example.model.university.LogSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Audit log queries, newest first, built from the criteria that are actually set so that each one is served by a composite index
+ * over (criterion, timestamp, id) of university.log_records, or by the (timestamp, id) index when only a time range is given.
+ */
+public interface LogRepositoryCustom {
+
+    /**
+     * The newest rows matching the filter.
+     *
+     * @param filter the query criteria
+     * @param limit  the maximum number of rows
+     */
+    List<LogSummary> findFirstSummaries(LogFilter filter, int limit);
+
+    /**
+     * Rows matching the filter that come after the given row in (timestamp, id) descending order.
+     *
+     * @param filter    the query criteria
+     * @param timestamp the timestamp of the last row of the previous page
+     * @param id        the id of the last row of the previous page
+     * @param limit     the maximum number of rows
+     */
+    List<LogSummary> findSummariesAfter(LogFilter filter, LocalDateTime timestamp, UUID id, int limit);
+
+    /**
+     * Forward-only cursor over all rows matching the filter; must be consumed and closed inside the caller's read-only transaction.
+     */
+    Stream<LogSummary> streamSummaries(LogFilter filter);
+}
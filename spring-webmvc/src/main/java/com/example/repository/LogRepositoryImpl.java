@@ -0,0 +1,114 @@
+package com.example.repository;
+
+import com.example.model.university.LogFilter;
+import com.example.model.university.LogSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class LogRepositoryImpl implements LogRepositoryCustom {
+
+    static final int FETCH_SIZE = 1000;
+
+    private static final String SELECT_SQL = "SELECT r.id, a.name, r.status, r.message, r.timestamp FROM university.log_records r " +
+            "JOIN university.log_actions a ON a.code = r.action_code";
+    private static final String ORDER_SQL = " ORDER BY r.timestamp DESC, r.id DESC";
+
+    private static final RowMapper<LogSummary> ROW_MAPPER = (rs, rowNum) -> new LogSummary(
+            rs.getObject(1, UUID.class), rs.getString(2), rs.getShort(3), rs.getString(4), rs.getTimestamp(5).toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public LogRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public List<LogSummary> findFirstSummaries(LogFilter filter, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = firstPageSql(filter, limit, args);
+
+        return jdbcTemplate.query(sql, ROW_MAPPER, args.toArray());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public List<LogSummary> findSummariesAfter(LogFilter filter, LocalDateTime timestamp, UUID id, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = nextPageSql(filter, timestamp, id, limit, args);
+
+        return jdbcTemplate.query(sql, ROW_MAPPER, args.toArray());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    public Stream<LogSummary> streamSummaries(LogFilter filter) {
+        List<Object> args = new ArrayList<>();
+        String sql = allSql(filter, args);
+
+        return jdbcTemplate.queryForStream(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < args.size(); i++) ps.setObject(i + 1, args.get(i));
+            return ps;
+        }, ROW_MAPPER);
+    }
+
+    // The statements are package-private so that tests can check their plans; each adds its bind arguments to args
+    static String firstPageSql(LogFilter filter, int limit, List<Object> args) {
+        StringBuilder sql = where(filter, args).append(ORDER_SQL).append(" LIMIT ?");
+        args.add(limit);
+        return sql.toString();
+    }
+
+    static String nextPageSql(LogFilter filter, LocalDateTime timestamp, UUID id, int limit, List<Object> args) {
+        StringBuilder sql = where(filter, args);
+        // timestamp is the NOT NULL partition key and id the primary key, so the row comparison never skips a row
+        sql.append(args.isEmpty() ? " WHERE " : " AND ").append("(r.timestamp, r.id) < (?, ?)").append(ORDER_SQL).append(" LIMIT ?");
+        args.add(Timestamp.valueOf(timestamp));
+        args.add(id);
+        args.add(limit);
+        return sql.toString();
+    }
+
+    static String allSql(LogFilter filter, List<Object> args) {
+        return where(filter, args).append(ORDER_SQL).toString();
+    }
+
+    // The action is resolved to its code by a scalar subquery, so the planner can seek on the action index with a constant
+    private static StringBuilder where(LogFilter filter, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.getAction() != null) {
+            conditions.add("r.action_code = (SELECT code FROM university.log_actions WHERE name = ?)");
+            args.add(filter.getAction());
+        }
+        if (filter.getStatus() != null) {
+            conditions.add("r.status = ?");
+            args.add(filter.getStatus().getCode());
+        }
+        if (filter.getFrom() != null) {
+            conditions.add("r.timestamp >= ?");
+            args.add(Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            conditions.add("r.timestamp < ?");
+            args.add(Timestamp.valueOf(filter.getTo()));
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        if (!conditions.isEmpty()) sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        return sql;
+    }
+}
@@ -1,36 +1,160 @@
 package com.example.repository;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.example.entity.UserAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceContext;
+
+import java.time.Duration;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+/**
+ * UserRepository provides storage and retrieval operations for user details.
+ * Users and their authorities are stored in university.users and university.user_authorities.
+ * <p>
+ * Every request of a logged-in user looks the user up by name, so users are cached in-process, bounded by
+ * {@code university.user-cache.maximum-size} entries and expired {@code university.user-cache.ttl-seconds} after being loaded.
+ * Unknown usernames are not cached. Writers drop the entry of the user at once and again after commit, so a lookup that reloads
+ * the old row while the writing transaction is still open cannot keep it cached. Callers get a copy of the cached user,
+ * since Spring Security erases the password of the user it has authenticated.
+ * <p>
+ * Authorities are added and removed under a row lock on the user, so concurrent edits of the same user do not overwrite each other,
+ * and {@link #create(User)} fails instead of overwriting a user that a concurrent signup created first.
+ */
 @Repository
 public class UserRepository {
 
-    // In-memory storage for user details (replace with database/JPA in a real application)
-    private static final Map<String, User> users = new HashMap<>();
+    private static final String FIND_SQL = "SELECT u FROM UserAccount u LEFT JOIN FETCH u.authorities WHERE u.username = :username";
+    private static final String FIND_ALL_SQL = "SELECT DISTINCT u FROM UserAccount u LEFT JOIN FETCH u.authorities ORDER BY u.username";
+
+    private final Cache<String, User> users;
 
-    public User loadUserByUsername(String username) throws UsernameNotFoundException { return users.get(username); }
+    @PersistenceContext
+    private EntityManager entityManager;
 
-    public boolean existsByUsername(String username) { return users.containsKey(username); }
+    public UserRepository(@Value("${university.user-cache.maximum-size:10000}") long maximumSize,
+                                 @Value("${university.user-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
 
-    public Collection<User> findAll() { return users.values(); }
+    public User loadUserByUsername(String username) throws UsernameNotFoundException {
+        User user = users.get(username, this::find);
+        return user == null ? null : copy(user);
+    }
+
+    public boolean existsByUsername(String username) { return loadUserByUsername(username) != null; }
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public Collection<User> findAll() {
+        return entityManager.createQuery(FIND_ALL_SQL, UserAccount.class).getResultList().stream()
+                .map(UserRepository::toUser)
+                .collect(Collectors.toList());
+    }
 
+    /**
+     * Insert a new user; fails if the username is already taken.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
+    public void create(User user) {
+        entityManager.persist(new UserAccount(user.getUsername(), user.getPassword(), authorityNames(user)));
+        entityManager.flush();
+        evict(user.getUsername());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
     public void save(User user) {
         String username = user.getUsername();
+        UserAccount account = entityManager.find(UserAccount.class, username, LockModeType.PESSIMISTIC_WRITE);
+        if (account == null) {
+            entityManager.persist(new UserAccount(username, user.getPassword(), authorityNames(user)));
+        } else {
+            Set<String> authorities = authorityNames(user);
+            account.setPassword(user.getPassword());
+            account.getAuthorities().retainAll(authorities);
+            account.getAuthorities().addAll(authorities);
+        }
+        evict(username);
+    }
 
-        // Save the user to the in-memory repository
-        users.put(username, user);
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
+    public void addAuthority(String username, String authority) {
+        lock(username).getAuthorities().add(authority);
+        evict(username);
     }
 
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
+    public void removeAuthority(String username, String authority) {
+        lock(username).getAuthorities().remove(authority);
+        evict(username);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
     public void deleteByUsername(String username) {
+        UserAccount account = entityManager.find(UserAccount.class, username, LockModeType.PESSIMISTIC_WRITE);
+
         // Check if the user not exists
-        if (!users.containsKey(username)) throw new IllegalArgumentException("User with username " +  username + " is not exists.");
+        if (account == null) throw new IllegalArgumentException("User with username " +  username + " is not exists.");
+
+        entityManager.remove(account);
+        evict(username);
+    }
+
+    private User find(String username) {
+        return entityManager.createQuery(FIND_SQL, UserAccount.class)
+                .setParameter("username", username)
+                .getResultList().stream()
+                .findFirst()
+                .map(UserRepository::toUser)
+                .orElse(null);
+    }
+
+    private UserAccount lock(String username) {
+        UserAccount account = entityManager.find(UserAccount.class, username, LockModeType.PESSIMISTIC_WRITE);
+        if (account == null) throw new UsernameNotFoundException("User not found with username: " + username);
+        return account;
+    }
+
+    private void evict(String username) {
+        users.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.invalidate(username);
+                }
+            });
+        }
+    }
+
+    private static User toUser(UserAccount account) {
+        return new User(account.getUsername(), account.getPassword(),
+                account.getAuthorities().stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList()));
+    }
+
+    private static User copy(User user) {
+        return new User(user.getUsername(), user.getPassword(), user.getAuthorities());
+    }
 
-        users.remove(username);
+    private static Set<String> authorityNames(User user) {
+        return user.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
     }
-}
\ No newline at end of file
+}
@@ -19,14 +19,12 @@ import java.util.Set;
 
 /**
  * This service class, CustomUserDetailsService, implements the UserDetailsService interface
- * to handle user authentication and authorization. It provides in-memory storage for user
- * details and uses a PasswordEncoder for secure password storage.
+ * to handle user authentication and authorization. Users are stored through the JPA-backed
+ * UserRepository, which caches them for the lookups on every request, and passwords are
+ * hashed with a PasswordEncoder before they are stored.
  * <p>
- * In a real-world application, you should replace the in-memory storage with a database
- * and adapt the implementation to use JPA for interacting with user data.
- * <p>
- * Note: This class is designed for educational purposes, and students should adapt it for use
- * with JPA and a database in a production environment.
+ * Authority edits are applied by the repository under a lock on the user, so concurrent edits
+ * from UserController do not overwrite each other.
  */
 
 @Component
@@ -75,7 +73,7 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         // Create a new User object with hashed password and save to repository
         User finalUser = new User(username, hashedPassword, authorities);
-        repo.save(finalUser);
+        repo.create(finalUser);
     }
 
     public void updateUser(User user) throws UsernameNotFoundException{
@@ -99,17 +97,11 @@ public class CustomUserDetailsService implements UserDetailsService {
     }
 
     public void addToUserAuthorities(UserDetails user, String authority) {
-        Set<GrantedAuthority> authorities = new HashSet<>(user.getAuthorities());
-        authorities.add(new SimpleGrantedAuthority(authority));
-        User updatedUser = new User(user.getUsername(), user.getPassword(), authorities);
-        updateUser(updatedUser);
+        repo.addAuthority(user.getUsername(), authority);
     }
 
     public void deleteFromUserAuthorities(UserDetails user, String authority) {
-        Set<GrantedAuthority> authorities = new HashSet<>(user.getAuthorities());
-        authorities.removeIf(auth -> auth.getAuthority().equals(authority));
-        User updatedUser = new User(user.getUsername(), user.getPassword(), authorities);
-        updateUser(updatedUser);
+        repo.removeAuthority(user.getUsername(), authority);
     }
 
     public boolean userExists(User user) {
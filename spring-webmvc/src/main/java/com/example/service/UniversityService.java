@@ -1,62 +1,135 @@
 package com.example.service;
 
+import com.example.config.bulk.BulkWriteMode;
 import com.example.entity.Course;
 import com.example.entity.Enrollment;
 import com.example.entity.Log;
 import com.example.entity.Student;
+import com.example.model.university.CatalogCourse;
+import com.example.model.university.CourseSummary;
+import com.example.model.university.CursorPage;
+import com.example.model.university.EnrollmentPair;
+import com.example.model.university.EnrollmentResult;
+import com.example.model.university.EnrollmentSummary;
+import com.example.model.university.LogFilter;
+import com.example.model.university.LogSummary;
+import com.example.model.university.PageCursor;
+import com.example.model.university.StudentSummary;
 import com.example.repository.CourseRepository;
 import com.example.repository.EnrollmentRepository;
 import com.example.repository.LogRepository;
 import com.example.repository.StudentRepository;
+import com.example.service.archive.LogArchive;
+import com.example.service.audit.AuditSink;
+import com.example.service.cache.CourseCatalogCache;
+import com.example.service.export.NdjsonWriter;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Component
 @Service
 public class UniversityService {
 
+    // Maximum number of ids bound into one IN (...) lookup
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    // Largest page served by the keyset-paginated listings
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final StudentRepository studentRepository;
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final LogRepository logRepository;
+    private final LogArchive logArchive;
+    private final AuditSink auditSink;
+    private final CourseCatalogCache courseCatalogCache;
+    private final NdjsonWriter ndjsonWriter;
+    private final BulkWriteMode bulkWriteMode;
+    private final int updateChunkSize;
+
+    // The transactional proxy of this service, so that its own NESTED methods get their savepoints when called from here
+    private final UniversityService self;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
-    public UniversityService(StudentRepository studentRepository, CourseRepository courseRepository, EnrollmentRepository enrollmentRepository, LogRepository logRepository) {
+    public UniversityService(StudentRepository studentRepository, CourseRepository courseRepository, EnrollmentRepository enrollmentRepository,
+                             LogRepository logRepository, LogArchive logArchive, AuditSink auditSink,
+                             CourseCatalogCache courseCatalogCache, NdjsonWriter ndjsonWriter, BulkWriteMode bulkWriteMode,
+                             @Value("${university.enrollment.update-chunk-size:500}") int updateChunkSize,
+                             @Lazy UniversityService self) {
         this.studentRepository = studentRepository;
         this.courseRepository = courseRepository;
         this.enrollmentRepository = enrollmentRepository;
         this.logRepository = logRepository;
+        this.logArchive = logArchive;
+        this.auditSink = auditSink;
+        this.courseCatalogCache = courseCatalogCache;
+        this.ndjsonWriter = ndjsonWriter;
+        this.bulkWriteMode = bulkWriteMode;
+        this.updateChunkSize = updateChunkSize;
+        this.self = self;
     }
 
     /**
      * Scenario 1: Enrolling a Student in a Course
      * Method: enrollStudentInCourse
      * <p>
-     * When a student is enrolled in a course, it is critical to ensure that the enrollment operation is completely isolated to maintain data consistency.
-     * This method runs with Propagation.REQUIRED and Isolation.SERIALIZABLE, ensuring that no other transactions can interfere during the enrollment process.
+     * When a student is enrolled in a course, the seat must be taken atomically so that concurrent enrollments can never overbook the course.
+     * This method runs with Propagation.REQUIRED and Isolation.READ_COMMITTED: the seat is taken by a single conditional UPDATE
+     * ("decrement capacity if a seat remains"), whose row lock serializes only the enrollments of the same course.
+     * Concurrent enrollers wait on that row for a moment instead of aborting the whole transaction with a serialization failure.
      * Additionally, we need to log this enrollment operation separately, regardless of whether the main transaction succeeds or fails.
-     * For this, we call logAction with Propagation.REQUIRES_NEW, which suspends the main transaction and starts a new one for logging.
+     * For this, we call logAction, which hands the event to the AuditSink outside of the main transaction.
      */
-    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.SERIALIZABLE)
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
     public void enrollStudentInCourse(UUID studentId, UUID courseId) {
         try {
             Student student = studentRepository.findById(studentId)
                     .orElseThrow(() -> new RuntimeException("Student not found"));
 
-            Course course = courseRepository.findById(courseId)
-                    .orElseThrow(() -> new RuntimeException("Course not found"));
+            // Index probe on (student_id, course_id); the unique constraint still rejects a concurrent duplicate at insert time
+            if (enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId)) {
+                throw new IllegalStateException("Student with ID " + studentId + " is already enrolled in course with ID " + courseId);
+            }
+
+            // Take a seat; the seat is given back if the transaction rolls back
+            if (courseRepository.takeSeat(courseId) == 0) {
+                if (!courseCatalogCache.exists(courseId)) throw new RuntimeException("Course not found");
+                throw new RuntimeException("Course is already full.");
+            }
 
-            int capacity = course.getCapacity();
-            if (capacity <= 0) throw new RuntimeException("Course is already full.");
+            Course course = courseRepository.getById(courseId);
 
             Enrollment enrollment = new Enrollment();
             enrollment.setStudent(student);
@@ -80,31 +153,22 @@ public class UniversityService {
      * This method ensures the removal of a student's enrollment in a course.
      * It uses Propagation.MANDATORY to ensure that this method is always executed within an existing transaction.
      * If called outside of a transaction, an exception will be thrown.
+     * The enrollment is removed by a single DELETE on the unique (student_id, course_id) index, so the cost does not grow with
+     * the student's enrollment history; the student and course are only looked up to explain why nothing was deleted.
      */
     @Transactional(propagation = Propagation.MANDATORY)
     public void removeStudentEnrollmentFromCourse(UUID studentId, UUID courseId) {
         try {
+            int removed = enrollmentRepository.deleteByStudentIdAndCourseId(studentId, courseId);
 
-            studentRepository.findById(studentId)
-                    .orElseThrow(() -> new RuntimeException("Student not found"));
-
-            courseRepository.findById(courseId)
-                    .orElseThrow(() -> new RuntimeException("Course not found"));
-
-            List<Enrollment> studentEnrollments = enrollmentRepository.findByStudentId(studentId);
-            if (studentEnrollments.isEmpty()) {
-                throw new IllegalStateException("No enrollments found for student with ID " + studentId);
-            }
-
-            List<Enrollment> filteredEnrollmentsForCourse = studentEnrollments.stream()
-                    .filter(enrollment -> enrollment.getCourse().getId().equals(courseId))
-                    .toList();
-
-            if (filteredEnrollmentsForCourse.isEmpty()) {
+            if (removed == 0) {
+                if (!studentRepository.existsById(studentId)) throw new RuntimeException("Student not found");
+                if (!courseCatalogCache.exists(courseId)) throw new RuntimeException("Course not found");
                 throw new IllegalStateException("Student with ID " + studentId + " is not enrolled in course with ID " + courseId);
             }
 
-            enrollmentRepository.deleteAll(filteredEnrollmentsForCourse);
+            // Give the freed seat back to the course
+            courseRepository.releaseSeats(courseId, removed);
 
             // Log successful deletion
             logAction("Delete Enrollment", "Success");
@@ -121,16 +185,13 @@ public class UniversityService {
      * To fetch all students enrolled in a specific course, this method uses Propagation.REQUIRED and Isolation.READ_COMMITTED.
      * This ensures that the method either joins an existing transaction or creates a new one, reading only committed data to prevent dirty reads
      * while allowing a balance between consistency and performance.
+     * The roster is read as flat StudentSummary projections by a single join query, instead of loading every Enrollment and then
+     * each lazy Student (with its eager enrollments) one by one.
      */
-    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
-    public List<Student> getStudentsForCourse(UUID courseId) {
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public List<StudentSummary> getStudentsForCourse(UUID courseId) {
         try {
-            List<Enrollment> enrollments = enrollmentRepository.findByCourseId(courseId);
-
-            List<Student> students = new ArrayList<>();
-            for (Enrollment enrollment : enrollments) {
-                students.add(enrollment.getStudent());
-            }
+            List<StudentSummary> students = studentRepository.findRosterByCourseId(courseId);
 
             logAction("Retrieve Students for Course", "Success");
             return students;
@@ -147,6 +208,7 @@ public class UniversityService {
      * Adding a new course is a simpler operation that does not require transactional guarantees.
      * Thus, this method runs with Propagation.NOT_SUPPORTED, suspending any existing transactions and executing non-transactionally.
      * This avoids unnecessary transactional overhead for a straightforward insert operation.
+     * The course catalog cache entries the new course belongs to (its instructor and online listings) are evicted.
      */
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Course addNewCourse(String title) {
@@ -154,6 +216,7 @@ public class UniversityService {
             Course course = new Course();
             course.setName(title);
             Course savedCourse = courseRepository.save(course);
+            courseCatalogCache.evict(savedCourse);
             logAction("Add New Course", "Success");
             return savedCourse;
         } catch (Exception e) {
@@ -167,21 +230,39 @@ public class UniversityService {
      * Method: updateCourseAndEnrollments
      * <p>
      * When updating course details along with related enrollments, we need to ensure consistency within nested transactions.
-     * This method uses Propagation.REQUIRED and Isolation.REPEATABLE_READ, ensuring it runs in the context of an existing transaction or starts a new one,
-     * and it prevents dirty and non-repeatable reads.
+     * This method uses Propagation.REQUIRED and Isolation.READ_COMMITTED, ensuring it runs in the context of an existing transaction or starts a new one.
+     * Concurrent changes to the course are detected through its optimistic-lock version rather than a REPEATABLE_READ snapshot:
+     * when expectedVersion is given and no longer matches, a CourseVersionConflictException is thrown before any work is done,
+     * The rename is a single UPDATE of the name and version that only matches the version read, so a change committed by another
+     * transaction in the meantime updates no row and ends in a CourseVersionConflictException as well. The capacity is never written,
+     * so seats taken concurrently are kept.
+     * The enrollments are updated first and the course row is written last, so enrollments into the course, which take seats on that row,
+     * do not wait for the grade update.
      * Within this method, updateEnrollments is called with Propagation.NESTED, allowing it to run within a nested transaction.
      * This setup enables partial rollbacks within the parent transaction, ensuring robust error handling and data integrity.
+     * The updated course is evicted from the course catalog cache immediately and again once the transaction commits.
      */
-    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.REPEATABLE_READ)
-    public void updateCourseAndEnrollments(UUID courseId, String newTitle) {
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
+    public void updateCourseAndEnrollments(UUID courseId, String newTitle, Long expectedVersion) {
         try {
             Course course = courseRepository.findById(courseId)
                     .orElseThrow(() -> new RuntimeException("Course not found"));
-            course.setName(newTitle);
-            courseRepository.save(course);
+            long version = expectedVersion != null ? expectedVersion : course.getVersion();
+            if (version != course.getVersion()) {
+                throw new CourseVersionConflictException(courseId, course.getVersion());
+            }
 
-            // Nested transaction to update enrollments
-            updateEnrollments(courseId);
+            // Nested transaction to update enrollments, started by a call through the proxy
+            self.updateEnrollments(courseId);
+
+            // Writes only the name and version, and only if no other transaction changed the course since it was read
+            if (courseRepository.rename(courseId, newTitle, version) == 0) {
+                long currentVersion = courseRepository.findCatalogById(courseId)
+                        .map(CatalogCourse::getVersion)
+                        .orElseThrow(() -> new RuntimeException("Course not found"));
+                throw new CourseVersionConflictException(courseId, currentVersion);
+            }
+            courseCatalogCache.evict(course);
             logAction("Update Course and Enrollments", "Success");
         } catch (Exception e) {
             logAction("Update Course and Enrollments", "Failure: " + e.getMessage());
@@ -194,20 +275,57 @@ public class UniversityService {
      * Method: updateEnrollments
      * <p>
      * This method is responsible for updating enrollment records.
-     * Running with Propagation.NESTED and Isolation.REPEATABLE_READ, it ensures that these operations are part of a nested transaction,
-     * providing the ability to roll back changes independently of the main transaction if necessary.
-     * The isolation level ensures consistent data reads during the transaction.
+     * Running with Propagation.NESTED, it runs in a nested transaction when called through the proxy inside an existing transaction,
+     * as updateCourseAndEnrollments does: a savepoint is set before the update and rolled back to if it fails,
+     * so a caller that catches the exception keeps the rest of its transaction.
+     * Isolation.REPEATABLE_READ only applies when the method starts a transaction of its own; a nested transaction keeps the isolation of its parent.
+     * The grades are adjusted by one set-based UPDATE instead of loading and saving every enrollment; pending changes are flushed before
+     * the statement and the persistence context is cleared after it, so no stale Enrollment is read later in the same transaction.
      */
     @Transactional(propagation = Propagation.NESTED, isolation = Isolation.REPEATABLE_READ)
     public void updateEnrollments(UUID courseId) {
         try {
-            List<Enrollment> enrollments = enrollmentRepository.findByCourseId(courseId);
-            for (Enrollment enrollment : enrollments) {
-                // Update enrollment in some way
-                // For example, adjust grades (this is just a placeholder)
-                enrollment.setGrade(enrollment.getGrade() + 1);
-                enrollmentRepository.save(enrollment);
+            // Adjust grades (this is just a placeholder for the real update)
+            enrollmentRepository.adjustGradesForCourse(courseId, 1);
+            logAction("Update Enrollments", "Success");
+        } catch (Exception e) {
+            logAction("Update Enrollments", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Scenario 6b: Updating Enrollments Row by Row
+     * Method: updateEnrollmentsInChunks
+     * <p>
+     * For updates that need per-row logic and cannot be expressed as a single UPDATE statement.
+     * The enrollments are read through a forward-only stream, and every {@code university.enrollment.update-chunk-size} rows
+     * the changes are flushed and the persistence context is cleared, so memory stays flat regardless of the course size.
+     * It runs with the same Propagation.NESTED and Isolation.REPEATABLE_READ settings as updateEnrollments, and is called through the proxy by recordGrades.
+     * Each flush sends the chunk's updates as JDBC batches; in bulk write mode the batches are larger and the stream's queries
+     * no longer trigger an automatic flush.
+     */
+    @Transactional(propagation = Propagation.NESTED, isolation = Isolation.REPEATABLE_READ)
+    public void updateEnrollmentsInChunks(UUID courseId, Consumer<Enrollment> update) {
+        try {
+            bulkWriteMode.applyIfRequested();
+
+            // Write pending changes of the caller before the context is cleared for the first time
+            entityManager.flush();
+
+            int processed = 0;
+            try (Stream<Enrollment> enrollments = enrollmentRepository.streamByCourseId(courseId)) {
+                for (Enrollment enrollment : (Iterable<Enrollment>) enrollments::iterator) {
+                    update.accept(enrollment);
+                    if (++processed % updateChunkSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
             }
+            entityManager.flush();
+            entityManager.clear();
+
             logAction("Update Enrollments", "Success");
         } catch (Exception e) {
             logAction("Update Enrollments", "Failure: " + e.getMessage());
@@ -215,6 +333,35 @@ public class UniversityService {
         }
     }
 
+    /**
+     * Scenario 6c: Recording Grades
+     * Method: recordGrades
+     * <p>
+     * The grades of a course are uploaded as one grade per student. Each enrollment of the course takes the grade of its student,
+     * if one was given, through updateEnrollmentsInChunks, so a course of any size is updated chunk by chunk with batched UPDATEs.
+     * This method runs with Propagation.REQUIRED and Isolation.READ_COMMITTED, and returns the number of enrollments that were graded.
+     * Grades for students who are not enrolled in the course are ignored.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
+    public int recordGrades(UUID courseId, Map<UUID, Integer> gradesByStudent) {
+        try {
+            int[] graded = {0};
+            self.updateEnrollmentsInChunks(courseId, enrollment -> {
+                // The id of a lazy student is read from the proxy without loading the student
+                Integer grade = gradesByStudent.get(enrollment.getStudent().getId());
+                if (grade != null) {
+                    enrollment.setGrade(grade);
+                    graded[0]++;
+                }
+            });
+            logAction("Record Grades", "Success");
+            return graded[0];
+        } catch (Exception e) {
+            logAction("Record Grades", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
     /**
      * Scenario 7: Non-Transactional Operation
      * Method: performNonTransactionalOperation
@@ -227,15 +374,422 @@ public class UniversityService {
         logAction("Perform Non-Transactional Operation", "Success");
     }
 
+    /**
+     * Scenario 8: Bulk Enrollment
+     * Method: enrollStudentsInCourses
+     * <p>
+     * Registrar imports enroll thousands of (student, course) pairs at once, so this method validates them with a few set-based lookups
+     * (existing students, existing courses, existing enrollments) instead of one findById per pair, takes the seats of each course with
+     * one conditional UPDATE, and inserts the accepted enrollments with one multi-row INSERT per chunk.
+     * A pair that a concurrent transaction enrolls after the lookup is skipped by the insert (ON CONFLICT DO NOTHING), reported as
+     * ALREADY_ENROLLED and its seat given back, so overlapping imports neither fail nor roll back each other.
+     * It runs with Propagation.REQUIRED and Isolation.READ_COMMITTED, like enrollStudentInCourse; pairs that fail validation are reported
+     * per item and do not roll back the others.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED)
+    public List<EnrollmentResult> enrollStudentsInCourses(List<EnrollmentPair> pairs) {
+        try {
+            Set<UUID> studentIds = new HashSet<>();
+            Set<UUID> courseIds = new HashSet<>();
+            for (EnrollmentPair pair : pairs) {
+                if (pair == null || pair.getStudentId() == null || pair.getCourseId() == null) continue;
+                studentIds.add(pair.getStudentId());
+                courseIds.add(pair.getCourseId());
+            }
+
+            // Set-based validation, chunked to stay below the JDBC bind parameter limit
+            Set<UUID> existingStudents = new HashSet<>();
+            for (List<UUID> chunk : chunked(studentIds)) existingStudents.addAll(studentRepository.findExistingIds(chunk));
+
+            Set<UUID> existingCourses = new HashSet<>();
+            for (List<UUID> chunk : chunked(courseIds)) existingCourses.addAll(courseRepository.findExistingIds(chunk));
+
+            Set<List<UUID>> existingEnrollments = new HashSet<>();
+            for (List<UUID> studentChunk : chunked(existingStudents)) {
+                for (List<UUID> courseChunk : chunked(existingCourses)) {
+                    for (Object[] row : enrollmentRepository.findStudentCoursePairs(studentChunk, courseChunk)) {
+                        existingEnrollments.add(List.of((UUID) row[0], (UUID) row[1]));
+                    }
+                }
+            }
+
+            EnrollmentResult.Status[] statuses = new EnrollmentResult.Status[pairs.size()];
+            Map<UUID, List<Integer>> acceptedByCourse = new LinkedHashMap<>();
+            Set<List<UUID>> seen = new HashSet<>();
+            for (int i = 0; i < pairs.size(); i++) {
+                EnrollmentPair pair = pairs.get(i);
+                if (pair == null || pair.getStudentId() == null || pair.getCourseId() == null) {
+                    statuses[i] = EnrollmentResult.Status.INVALID_REQUEST;
+                    continue;
+                }
+
+                List<UUID> key = List.of(pair.getStudentId(), pair.getCourseId());
+                if (!seen.add(key)) statuses[i] = EnrollmentResult.Status.DUPLICATE_IN_REQUEST;
+                else if (!existingStudents.contains(pair.getStudentId())) statuses[i] = EnrollmentResult.Status.STUDENT_NOT_FOUND;
+                else if (!existingCourses.contains(pair.getCourseId())) statuses[i] = EnrollmentResult.Status.COURSE_NOT_FOUND;
+                else if (existingEnrollments.contains(key)) statuses[i] = EnrollmentResult.Status.ALREADY_ENROLLED;
+                else acceptedByCourse.computeIfAbsent(pair.getCourseId(), id -> new ArrayList<>()).add(i);
+            }
+
+            // Seats are handed out in request order; the rest of a course's pairs are reported as full
+            List<EnrollmentPair> toInsert = new ArrayList<>();
+            List<Integer> toInsertIndexes = new ArrayList<>();
+            for (Map.Entry<UUID, List<Integer>> entry : acceptedByCourse.entrySet()) {
+                List<Integer> indexes = entry.getValue();
+                int granted = takeSeats(entry.getKey(), indexes.size());
+                for (int j = 0; j < indexes.size(); j++) {
+                    int index = indexes.get(j);
+                    if (j < granted) {
+                        statuses[index] = EnrollmentResult.Status.ENROLLED;
+                        toInsert.add(pairs.get(index));
+                        toInsertIndexes.add(index);
+                    } else {
+                        statuses[index] = EnrollmentResult.Status.COURSE_FULL;
+                    }
+                }
+            }
+
+            // Pairs enrolled by a concurrent transaction since the lookup above are skipped by the insert; their seats are given back
+            Set<List<UUID>> skipped = new HashSet<>();
+            for (EnrollmentPair pair : enrollmentRepository.insertAll(toInsert, new Date())) {
+                skipped.add(List.of(pair.getStudentId(), pair.getCourseId()));
+            }
+            Map<UUID, Integer> unusedSeats = new LinkedHashMap<>();
+            for (int index : toInsertIndexes) {
+                EnrollmentPair pair = pairs.get(index);
+                if (skipped.contains(List.of(pair.getStudentId(), pair.getCourseId()))) {
+                    statuses[index] = EnrollmentResult.Status.ALREADY_ENROLLED;
+                    unusedSeats.merge(pair.getCourseId(), 1, Integer::sum);
+                }
+            }
+            unusedSeats.forEach(courseRepository::releaseSeats);
+
+            List<EnrollmentResult> results = new ArrayList<>(pairs.size());
+            for (int i = 0; i < pairs.size(); i++) {
+                EnrollmentPair pair = pairs.get(i);
+                results.add(pair == null
+                        ? new EnrollmentResult(null, null, statuses[i])
+                        : new EnrollmentResult(pair.getStudentId(), pair.getCourseId(), statuses[i]));
+            }
+
+            logAction("Bulk Enroll Students", "Success");
+            return results;
+        } catch (Exception e) {
+            logAction("Bulk Enroll Students", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Scenario 9: Streaming Export
+     * Methods: exportStudentsForCourse, exportStudentsByMajor, exportCourses, exportEnrollments
+     * <p>
+     * These methods write their rows as newline-delimited JSON straight to the given output stream instead of returning a List.
+     * Each runs in its own read-only transaction with Propagation.REQUIRED and Isolation.READ_COMMITTED, which keeps the
+     * JDBC connection out of auto-commit so that PostgreSQL honours the fetch size and reads the result through a forward-only cursor.
+     * Rows are read as projections, so the persistence context does not grow, and each row is written as soon as it is fetched:
+     * exporting millions of enrollments uses a flat heap and the first bytes are sent immediately.
+     * They are meant to be called from a StreamingResponseBody, whose thread owns the transaction for the whole response.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public long exportStudentsForCourse(UUID courseId, OutputStream out) throws IOException {
+        try (Stream<StudentSummary> students = studentRepository.streamRosterByCourseId(courseId)) {
+            long count = ndjsonWriter.write(students, out);
+
+            logAction("Export Students for Course", "Success");
+            return count;
+        } catch (Exception e) {
+            logAction("Export Students for Course", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public long exportStudentsByMajor(String major, OutputStream out) throws IOException {
+        try (Stream<StudentSummary> students = studentRepository.streamByMajor(major)) {
+            long count = ndjsonWriter.write(students, out);
+
+            logAction("Export Students by Major", "Success");
+            return count;
+        } catch (Exception e) {
+            logAction("Export Students by Major", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public long exportCourses(Sort sort, OutputStream out) throws IOException {
+        try (Stream<CourseSummary> courses = courseRepository.streamAll(sort)) {
+            long count = ndjsonWriter.write(courses, out);
+
+            logAction("Export Courses", "Success");
+            return count;
+        } catch (Exception e) {
+            logAction("Export Courses", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public long exportEnrollments(OutputStream out) throws IOException {
+        try (Stream<EnrollmentSummary> enrollments = enrollmentRepository.streamAllSummaries()) {
+            long count = ndjsonWriter.write(enrollments, out);
+
+            logAction("Export Enrollments", "Success");
+            return count;
+        } catch (Exception e) {
+            logAction("Export Enrollments", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Scenario 10: Keyset Pagination
+     * Methods: getStudentsPage, getCoursesPage, getEnrollmentsForCoursePage
+     * <p>
+     * Offset pagination makes the database read and discard every row before the requested page and issues a COUNT(*) for each page,
+     * so deep pages get linearly slower. These methods seek instead: the opaque cursor holds the sort key and id of the last row of the
+     * previous page, and the next page starts right after it on an index over (name, id), or (course_id, id) for enrollments,
+     * so every page costs the same. Rows without a name come last, in id order; their cursor holds no key.
+     * One extra row is fetched to know whether another page exists, and the total is only counted on request.
+     * They run read-only with Propagation.REQUIRED and Isolation.READ_COMMITTED; an invalid cursor raises IllegalArgumentException.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public CursorPage<StudentSummary> getStudentsPage(String cursor, int size, boolean withTotal) {
+        try {
+            PageCursor after = PageCursor.decode(cursor);
+            int pageSize = pageSize(size);
+            Pageable limit = PageRequest.of(0, pageSize + 1);
+
+            List<StudentSummary> rows = after == null
+                    ? studentRepository.findFirstSummaries(limit)
+                    : after.getKey() == null
+                    ? studentRepository.findUnnamedSummariesAfter(after.getId(), limit)
+                    : thenUnnamed(studentRepository.findSummariesAfter(after.getKey(), after.getId(), limit), pageSize + 1,
+                            studentRepository::findFirstUnnamedSummaries);
+            CursorPage<StudentSummary> page = CursorPage.of(rows, pageSize,
+                    student -> new PageCursor(student.getName(), student.getId()), withTotal ? studentRepository.count() : null);
+
+            logAction("Retrieve Students Page", "Success");
+            return page;
+        } catch (Exception e) {
+            logAction("Retrieve Students Page", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public CursorPage<CourseSummary> getCoursesPage(String cursor, int size, boolean withTotal) {
+        try {
+            PageCursor after = PageCursor.decode(cursor);
+            int pageSize = pageSize(size);
+            Pageable limit = PageRequest.of(0, pageSize + 1);
+
+            List<CourseSummary> rows = after == null
+                    ? courseRepository.findFirstSummaries(limit)
+                    : after.getKey() == null
+                    ? courseRepository.findUnnamedSummariesAfter(after.getId(), limit)
+                    : thenUnnamed(courseRepository.findSummariesAfter(after.getKey(), after.getId(), limit), pageSize + 1,
+                            courseRepository::findFirstUnnamedSummaries);
+            CursorPage<CourseSummary> page = CursorPage.of(rows, pageSize,
+                    course -> new PageCursor(course.getName(), course.getId()), withTotal ? courseRepository.count() : null);
+
+            logAction("Retrieve Courses Page", "Success");
+            return page;
+        } catch (Exception e) {
+            logAction("Retrieve Courses Page", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public CursorPage<EnrollmentSummary> getEnrollmentsForCoursePage(UUID courseId, String cursor, int size, boolean withTotal) {
+        try {
+            PageCursor after = PageCursor.decode(cursor);
+            int pageSize = pageSize(size);
+            Pageable limit = PageRequest.of(0, pageSize + 1);
+
+            List<EnrollmentSummary> rows = after == null
+                    ? enrollmentRepository.findFirstSummariesByCourseId(courseId, limit)
+                    : enrollmentRepository.findSummariesByCourseIdAfter(courseId, after.getId(), limit);
+            CursorPage<EnrollmentSummary> page = CursorPage.of(rows, pageSize,
+                    enrollment -> PageCursor.of(enrollment.getId()), withTotal ? enrollmentRepository.countByCourseId(courseId) : null);
+
+            logAction("Retrieve Enrollments Page for Course", "Success");
+            return page;
+        } catch (Exception e) {
+            logAction("Retrieve Enrollments Page for Course", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Scenario 11: Course Catalog Lookups
+     * Methods: getCourse, getCoursesByInstructor, getCoursesByOnline
+     * <p>
+     * Course catalog data is read far more often than it changes, so these lookups are served by the CourseCatalogCache,
+     * which loads from the database only on a miss and is invalidated by addNewCourse and updateCourseAndEnrollments.
+     * They run with Propagation.SUPPORTS: a cache hit neither opens a transaction nor borrows a connection, and a miss
+     * is loaded by a read-only repository query in its own short transaction.
+     * The remaining capacity is not part of the catalog data and is not returned.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<CatalogCourse> getCourse(UUID courseId) {
+        try {
+            Optional<CatalogCourse> course = courseCatalogCache.findById(courseId);
+
+            logAction("Retrieve Course", "Success");
+            return course;
+        } catch (Exception e) {
+            logAction("Retrieve Course", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<CatalogCourse> getCoursesByInstructor(String instructor) {
+        try {
+            List<CatalogCourse> courses = courseCatalogCache.findByInstructor(instructor);
+
+            logAction("Retrieve Courses by Instructor", "Success");
+            return courses;
+        } catch (Exception e) {
+            logAction("Retrieve Courses by Instructor", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<CatalogCourse> getCoursesByOnline(boolean online) {
+        try {
+            List<CatalogCourse> courses = courseCatalogCache.findByOnline(online);
+
+            logAction("Retrieve Courses by Online", "Success");
+            return courses;
+        } catch (Exception e) {
+            logAction("Retrieve Courses by Online", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Scenario 12: Audit Log Queries
+     * Methods: getLogsPage, exportLogs, getArchivedLogsPage
+     * <p>
+     * Incidents used to be investigated with ad-hoc scans of the whole log table on the primary. These methods filter by action,
+     * outcome status and time range, newest first, and only add the criteria that are set, so each query seeks on the composite index
+     * (action_code, timestamp, id), (status, timestamp, id) or (timestamp, id) and touches only the partitions of the time range.
+     * getLogsPage paginates by keyset like Scenario 10, with the timestamp and id of the last row in the cursor; exportLogs streams
+     * every matching row as newline-delimited JSON like Scenario 9. Both run read-only, so they are served by the replica when one is configured.
+     * Successes of rolled up actions are only counted in university.log_rollups and do not appear here.
+     * getArchivedLogsPage answers the same queries for rows past the retention period from the segment files of the log archive,
+     * with the same cursors; it reads only local files and needs no transaction.
+     */
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public CursorPage<LogSummary> getLogsPage(LogFilter filter, String cursor, int size) {
+        try {
+            PageCursor after = PageCursor.decode(cursor);
+            int pageSize = pageSize(size);
+
+            List<LogSummary> rows = after == null
+                    ? logRepository.findFirstSummaries(filter, pageSize + 1)
+                    : logRepository.findSummariesAfter(filter, cursorTimestamp(after), after.getId(), pageSize + 1);
+            CursorPage<LogSummary> page = CursorPage.of(rows, pageSize,
+                    log -> new PageCursor(log.getTimestamp().toString(), log.getId()), null);
+
+            logAction("Retrieve Logs Page", "Success");
+            return page;
+        } catch (Exception e) {
+            logAction("Retrieve Logs Page", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    public long exportLogs(LogFilter filter, OutputStream out) throws IOException {
+        try (Stream<LogSummary> logs = logRepository.streamSummaries(filter)) {
+            long count = ndjsonWriter.write(logs, out);
+
+            logAction("Export Logs", "Success");
+            return count;
+        } catch (Exception e) {
+            logAction("Export Logs", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    public CursorPage<LogSummary> getArchivedLogsPage(LogFilter filter, String cursor, int size) {
+        try {
+            PageCursor after = PageCursor.decode(cursor);
+            int pageSize = pageSize(size);
+
+            List<LogSummary> rows = after == null
+                    ? logArchive.find(filter, null, null, pageSize + 1)
+                    : logArchive.find(filter, cursorTimestamp(after), after.getId(), pageSize + 1);
+            CursorPage<LogSummary> page = CursorPage.of(rows, pageSize,
+                    log -> new PageCursor(log.getTimestamp().toString(), log.getId()), null);
+
+            logAction("Retrieve Archived Logs Page", "Success");
+            return page;
+        } catch (Exception e) {
+            logAction("Retrieve Archived Logs Page", "Failure: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private static LocalDateTime cursorTimestamp(PageCursor cursor) {
+        if (cursor.getKey() == null) throw new IllegalArgumentException("Invalid page cursor");
+        try {
+            return LocalDateTime.parse(cursor.getKey());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    /**
+     * Take up to {@code requested} seats of a course with conditional updates and return how many were granted.
+     * Under contention the remaining capacity is re-read and the smaller request retried until it succeeds or the course is full.
+     */
+    private int takeSeats(UUID courseId, int requested) {
+        int seats = requested;
+        while (seats > 0) {
+            if (courseRepository.takeSeats(courseId, seats) > 0) return seats;
+            seats = Math.min(requested, courseRepository.findCapacityById(courseId).orElse(0));
+        }
+        return 0;
+    }
+
+    // Rows without a name sort after all named ones; a page that runs out of named rows is filled up with the first unnamed ones
+    private static <T> List<T> thenUnnamed(List<T> named, int limit, Function<Pageable, List<T>> firstUnnamed) {
+        if (named.size() >= limit) return named;
+
+        List<T> rows = new ArrayList<>(named);
+        rows.addAll(firstUnnamed.apply(PageRequest.of(0, limit - named.size())));
+        return rows;
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static List<List<UUID>> chunked(Collection<UUID> ids) {
+        List<UUID> list = new ArrayList<>(ids);
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += LOOKUP_CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(list.size(), from + LOOKUP_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
     /**
      * Log an action
      * <p>
-     * This method handles logging actions with Propagation.REQUIRES_NEW, ensuring that logging occurs in a new transaction.
-     * This makes the logging operation independent of the outcome of the main transaction.
+     * This method hands the action to the configured AuditSink, which writes it independently of the main transaction.
+     * With the default batched sink the event is queued and written in a JDBC batch by a background worker,
+     * so the request neither borrows a second connection nor waits for a second commit.
      */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logAction(String action, String outcome) {
         Log log = new Log(action, outcome, LocalDateTime.now());
-        logRepository.save(log);
+        auditSink.record(log);
     }
 }
@@ -0,0 +1,153 @@
+package com.example.service.archive;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Memory-mapped view of an archive segment written by {@link LogSegmentWriter}.
+ * <p>
+ * Opening a segment only reads its trailer and footer. A scan then uses the sparse index to inflate just the blocks that overlap
+ * the requested time range and visits their rows newest first, so a narrow historical query reads a few blocks of a file.
+ */
+class LogSegmentReader {
+
+    /**
+     * Receives the rows of a scan; returns false to end the scan.
+     */
+    interface RowVisitor {
+        boolean visit(UUID id, String action, short status, String message, long micros);
+    }
+
+    private final MappedByteBuffer buffer;
+    private final String[] actions;
+    private final long[][] blocks;
+    private final long minMicros;
+    private final long maxMicros;
+
+    private LogSegmentReader(MappedByteBuffer buffer, String[] actions, long[][] blocks, long minMicros, long maxMicros) {
+        this.buffer = buffer;
+        this.actions = actions;
+        this.blocks = blocks;
+        this.minMicros = minMicros;
+        this.maxMicros = maxMicros;
+    }
+
+    static LogSegmentReader open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        int size = buffer.capacity();
+        if (size < Integer.BYTES + LogSegmentWriter.TRAILER_SIZE
+                || buffer.getInt(0) != LogSegmentWriter.MAGIC
+                || buffer.getInt(size - Integer.BYTES) != LogSegmentWriter.MAGIC) {
+            throw new IOException("Not a complete log archive segment: " + file);
+        }
+
+        int trailer = size - LogSegmentWriter.TRAILER_SIZE;
+        long minMicros = buffer.getLong(trailer);
+        long maxMicros = buffer.getLong(trailer + Long.BYTES);
+        ByteBuffer footer = buffer.duplicate().position((int) buffer.getLong(trailer + 2 * Long.BYTES));
+
+        String[] actions = new String[footer.getInt()];
+        for (int i = 0; i < actions.length; i++) {
+            byte[] name = new byte[footer.getShort() & 0xFFFF];
+            footer.get(name);
+            actions[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        long[][] blocks = new long[footer.getInt()][];
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = new long[]{footer.getLong(), footer.getLong(), footer.getLong(), footer.getInt(), footer.getInt()};
+        }
+        return new LogSegmentReader(buffer, actions, blocks, minMicros, maxMicros);
+    }
+
+    boolean overlaps(long fromMicros, long toMicros) {
+        return blocks.length > 0 && minMicros <= toMicros && maxMicros >= fromMicros;
+    }
+
+    /**
+     * Visit the rows with a timestamp in [fromMicros, toMicros], newest first, until the visitor returns false.
+     */
+    void scan(long fromMicros, long toMicros, RowVisitor visitor) throws IOException {
+        for (int b = blocks.length - 1; b >= 0; b--) {
+            long[] block = blocks[b];
+            if (block[1] < fromMicros) return;
+            if (block[0] > toMicros) continue;
+
+            ByteBuffer data = ByteBuffer.wrap(inflate(block));
+            int count = data.getInt();
+
+            long[] timestamps = new long[count];
+            timestamps[0] = data.getLong();
+            for (int i = 1; i < count; i++) timestamps[i] = timestamps[i - 1] + readVarLong(data);
+            UUID[] ids = new UUID[count];
+            for (int i = 0; i < count; i++) ids[i] = new UUID(data.getLong(), data.getLong());
+            int[] actionColumn = new int[count];
+            for (int i = 0; i < count; i++) actionColumn[i] = (int) readVarLong(data);
+            byte[] statuses = new byte[count];
+            data.get(statuses);
+            String[] messages = new String[count];
+            for (int i = 0; i < count; i++) {
+                int length = (int) readVarLong(data) - 1;
+                if (length < 0) continue;
+                messages[i] = new String(data.array(), data.position(), length, StandardCharsets.UTF_8);
+                data.position(data.position() + length);
+            }
+
+            for (int i = count - 1; i >= 0; i--) {
+                if (timestamps[i] > toMicros) continue;
+                if (timestamps[i] < fromMicros) return;
+                if (!visitor.visit(ids[i], actions[actionColumn[i]], statuses[i], messages[i], timestamps[i])) return;
+            }
+        }
+    }
+
+    private byte[] inflate(long[] block) throws IOException {
+        ByteBuffer compressed = buffer.slice((int) block[2], (int) block[3]);
+        byte[] uncompressed = new byte[(int) block[4]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int length = 0;
+            while (length < uncompressed.length && !inflater.finished()) {
+                length += inflater.inflate(uncompressed, length, uncompressed.length - length);
+            }
+            if (length != uncompressed.length) throw new IOException("Truncated log archive block");
+            return uncompressed;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt log archive block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long readVarLong(ByteBuffer data) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    // Timestamps are stored as microseconds of the local date-time, the precision of PostgreSQL timestamps
+    static long toMicros(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + timestamp.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.service.audit;
+
+import com.example.model.university.ActionFailureRate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Failure rate of every audited action over a sliding window ending now.
+ * <p>
+ * Totals combine the full rows in university.log_records, the per-minute success counts in university.log_rollups and,
+ * when a {@link RollupAuditSink} is configured, the successes it has not flushed yet. Rollups have minute granularity,
+ * so the window starts at the beginning of its first minute. The query runs in a read-only transaction and is therefore
+ * served by the replica when one is configured.
+ */
+public class ActionFailureRates {
+
+    private static final String RATES_SQL =
+            "SELECT a.name, sum(t.total), sum(t.failures) FROM (" +
+            "SELECT action_code, count(*) AS total, count(*) FILTER (WHERE status = 1) AS failures " +
+            "FROM university.log_records WHERE timestamp >= ? GROUP BY action_code " +
+            "UNION ALL " +
+            "SELECT action_code, sum(success_count), 0 FROM university.log_rollups WHERE minute >= ? GROUP BY action_code" +
+            ") t JOIN university.log_actions a ON a.code = t.action_code GROUP BY a.name";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RollupAuditSink rollupSink;
+
+    public ActionFailureRates(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, RollupAuditSink rollupSink) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.rollupSink = rollupSink;
+    }
+
+    public List<ActionFailureRate> over(Duration window) {
+        LocalDateTime since = LocalDateTime.now().minus(window).truncatedTo(ChronoUnit.MINUTES);
+        Timestamp from = Timestamp.valueOf(since);
+
+        // action -> {total, failures}
+        Map<String, long[]> counts = new TreeMap<>();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(RATES_SQL,
+                rs -> { counts.put(rs.getString(1), new long[]{rs.getLong(2), rs.getLong(3)}); }, from, from));
+        if (rollupSink != null) {
+            rollupSink.pendingSuccesses(since).forEach((action, successes) ->
+                    counts.computeIfAbsent(action, a -> new long[2])[0] += successes);
+        }
+
+        List<ActionFailureRate> rates = new ArrayList<>(counts.size());
+        counts.forEach((action, c) -> rates.add(new ActionFailureRate(action, c[0], c[1])));
+        return rates;
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.service.audit;
+
+import com.example.entity.Log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of audit events in memory-mapped segment files on local disk.
+ * <p>
+ * Events are appended to the active segment {@code audit-<sequence>.active}, a file of {@code segmentSize} bytes mapped
+ * into memory, so an append is a copy into the page cache without any system call. A full segment, or one rolled by the loader,
+ * is forced to disk and renamed to {@code audit-<sequence>.sealed}; sealed segments are shipped to the database and then deleted.
+ * Active segments left behind by a crash are sealed when the journal is opened, so they are shipped like any other.
+ * <p>
+ * Every record is {@code [payload length][CRC32 of payload][payload]}. The unused rest of a segment is zero, so a zero length
+ * ends the segment, and a record cut short by a crash fails its checksum and ends it too.
+ * Written pages survive a crash of the JVM; only events written after the last force can be lost when the machine itself fails.
+ */
+public class AuditJournal implements AutoCloseable {
+
+    static final int MIN_SEGMENT_SIZE = 1 << 20;
+
+    private static final int MAGIC = 0x41554a31; // "AUJ1"
+    private static final int SEGMENT_HEADER = Integer.BYTES;
+    private static final int RECORD_HEADER = 2 * Integer.BYTES;
+    private static final int MAX_TEXT_BYTES = 64 * 1024;
+
+    private static final String ACTIVE = ".active";
+    private static final String SEALED = ".sealed";
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private long sequence;
+    private Path activePath;
+    private FileChannel activeChannel;
+    private MappedByteBuffer active;
+
+    public AuditJournal(Path directory, int segmentSize) {
+        if (segmentSize < MIN_SEGMENT_SIZE) throw new IllegalArgumentException("Audit journal segments must be at least 1 MiB");
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Seal the segments a previous run left active and start a new active segment.
+     */
+    public synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        for (Path path : list(ACTIVE)) {
+            seal(path);
+        }
+        List<Path> sealed = sealedSegments();
+        sequence = sealed.isEmpty() ? 0 : sequenceOf(sealed.get(sealed.size() - 1));
+        startSegment();
+    }
+
+    public synchronized void append(Log log) {
+        if (active == null) throw new IllegalStateException("Audit journal is closed");
+
+        byte[] payload = encode(log);
+        if (active.remaining() < RECORD_HEADER + payload.length) {
+            roll();
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        active.putInt(payload.length);
+        active.putInt((int) crc.getValue());
+        active.put(payload);
+    }
+
+    /**
+     * Seal the active segment if it holds any record and continue in a new one.
+     */
+    public synchronized void roll() {
+        if (active == null || active.position() == SEGMENT_HEADER) return;
+
+        try {
+            closeActive();
+            seal(activePath);
+            startSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not roll audit journal segment " + activePath, e);
+        }
+    }
+
+    /**
+     * Sealed segments in the order they were written.
+     */
+    public List<Path> sealedSegments() throws IOException {
+        return list(SEALED);
+    }
+
+    /**
+     * Pass every intact record of a sealed segment to the consumer and return how many there were.
+     */
+    public static int read(Path segment, Consumer<Log> consumer) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        if (buffer.remaining() < SEGMENT_HEADER || buffer.getInt() != MAGIC) return 0;
+
+        int count = 0;
+        CRC32 crc = new CRC32();
+        while (buffer.remaining() >= RECORD_HEADER) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) break;
+
+            crc.reset();
+            crc.update(buffer.array(), buffer.position(), length);
+            if ((int) crc.getValue() != checksum) break;
+
+            ByteBuffer payload = buffer.slice(buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            consumer.accept(decode(payload));
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (active == null) return;
+        if (active.position() == SEGMENT_HEADER) {
+            closeActive();
+            Files.delete(activePath);
+        } else {
+            closeActive();
+            seal(activePath);
+        }
+        active = null;
+    }
+
+    private void startSegment() throws IOException {
+        sequence++;
+        activePath = directory.resolve(String.format("audit-%020d%s", sequence, ACTIVE));
+        activeChannel = FileChannel.open(activePath, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = activeChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        active.putInt(MAGIC);
+    }
+
+    private void closeActive() throws IOException {
+        active.force();
+        activeChannel.close();
+    }
+
+    private void seal(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        Path sealed = path.resolveSibling(name.substring(0, name.length() - ACTIVE.length()) + SEALED);
+        Files.move(path, sealed, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<Path> list(String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> path.getFileName().toString().startsWith("audit-") && path.getFileName().toString().endsWith(suffix))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long sequenceOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring("audit-".length(), name.indexOf('.')));
+    }
+
+    private static byte[] encode(Log log) {
+        byte[] action = text(log.getAction());
+        byte[] outcome = text(log.getOutcome());
+        LocalDateTime timestamp = log.getTimestamp() == null ? LocalDateTime.now() : log.getTimestamp();
+
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES + Long.BYTES + Integer.BYTES
+                + Integer.BYTES + action.length + Integer.BYTES + outcome.length);
+        buffer.putLong(log.getId().getMostSignificantBits());
+        buffer.putLong(log.getId().getLeastSignificantBits());
+        buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(timestamp.getNano());
+        buffer.putInt(log.getAction() == null ? -1 : action.length);
+        buffer.put(action);
+        buffer.putInt(log.getOutcome() == null ? -1 : outcome.length);
+        buffer.put(outcome);
+        return buffer.array();
+    }
+
+    private static Log decode(ByteBuffer buffer) {
+        try {
+            UUID id = new UUID(buffer.getLong(), buffer.getLong());
+            LocalDateTime timestamp = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            String action = readText(buffer, buffer.getInt());
+            String outcome = readText(buffer, buffer.getInt());
+
+            Log log = new Log(action, outcome, timestamp);
+            log.setId(id);
+            return log;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("Corrupt audit journal record", e);
+        }
+    }
+
+    // Text longer than MAX_TEXT_BYTES is cut at that length, so that every record fits into a segment
+    private static byte[] text(String value) {
+        if (value == null) return new byte[0];
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_TEXT_BYTES) return bytes;
+        return new String(bytes, 0, MAX_TEXT_BYTES, StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String readText(ByteBuffer buffer, int length) {
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
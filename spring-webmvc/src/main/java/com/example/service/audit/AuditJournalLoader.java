@@ -0,0 +1,89 @@
+package com.example.service.audit;
+
+import com.example.entity.Log;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ships sealed {@link AuditJournal} segments into university.log_records with the PostgreSQL COPY protocol.
+ * <p>
+ * A segment is copied into a session-local staging table and moved into log_records with ON CONFLICT DO NOTHING, all in one
+ * transaction, and the file is deleted only after that transaction committed. A segment that was loaded but not deleted before
+ * a crash is therefore loaded again on the next start without creating duplicates.
+ */
+public class AuditJournalLoader {
+
+    private static final String STAGING_SQL = "CREATE TEMP TABLE IF NOT EXISTS audit_journal_staging " +
+            "(LIKE university.log_records INCLUDING DEFAULTS) ON COMMIT DELETE ROWS";
+    private static final String COPY_SQL = "COPY audit_journal_staging (id, action_code, status, message, timestamp) FROM STDIN (FORMAT csv)";
+    private static final String MERGE_SQL = "INSERT INTO university.log_records (id, action_code, status, message, timestamp) " +
+            "SELECT id, action_code, status, message, timestamp FROM audit_journal_staging ON CONFLICT DO NOTHING";
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LogActionDictionary actionDictionary;
+
+    public AuditJournalLoader(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, LogActionDictionary actionDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.actionDictionary = actionDictionary;
+    }
+
+    /**
+     * Load one sealed segment, delete it and return the number of events it held.
+     */
+    public int ship(Path segment) throws IOException {
+        List<Log> logs = new ArrayList<>();
+        AuditJournal.read(segment, logs::add);
+
+        if (!logs.isEmpty()) {
+            String csv = toCsv(logs);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+                try (Statement statement = con.createStatement()) {
+                    statement.execute(STAGING_SQL);
+                }
+                try {
+                    con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL, new StringReader(csv));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                try (Statement statement = con.createStatement()) {
+                    return (long) statement.executeUpdate(MERGE_SQL);
+                }
+            }));
+        }
+
+        Files.delete(segment);
+        return logs.size();
+    }
+
+    private String toCsv(List<Log> logs) {
+        StringBuilder csv = new StringBuilder(logs.size() * 96);
+        for (Log log : logs) {
+            csv.append(log.getId()).append(',')
+                    .append(actionDictionary.codeOf(log.getAction())).append(',')
+                    .append(log.getStatus()).append(',');
+            // An unquoted empty field is NULL, a quoted one the empty string
+            if (log.getMessage() != null) {
+                csv.append('"').append(log.getMessage().replace("\"", "\"\"")).append('"');
+            }
+            csv.append(',').append(TIMESTAMP_FORMAT.format(log.getTimestamp())).append('\n');
+        }
+        return csv.toString();
+    }
+}
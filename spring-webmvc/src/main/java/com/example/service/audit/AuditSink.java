@@ -0,0 +1,20 @@
+package com.example.service.audit;
+
+import com.example.entity.Log;
+
+/**
+ * Destination for audit {@link Log} events produced by the service layer.
+ * <p>
+ * Implementations decide how and when an event reaches the university.log_records table, with its action encoded by {@link LogActionDictionary}:
+ * {@link TransactionalAuditSink} writes each event in its own transaction, while
+ * {@link BatchingAuditSink} queues events and writes them in JDBC batches on a background worker.
+ */
+public interface AuditSink {
+
+    /**
+     * Record a single audit event.
+     *
+     * @param log the event to record
+     */
+    void record(Log log);
+}
@@ -0,0 +1,126 @@
+package com.example.service.audit;
+
+import com.example.entity.Log;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AuditSink that counts the successes of selected actions per minute instead of writing a row for each of them.
+ * <p>
+ * A successful event whose action is in {@code rollupActions} only increments an in-memory counter for its (action, minute);
+ * every other event, including each failure of a rolled up action, is passed on to the delegate and keeps its full row.
+ * The counters are flushed into university.log_rollups by a scheduled task and once more on shutdown. A minute is only flushed
+ * after a further full minute has passed, so no late increment can land in a counter that has already been written.
+ * A failed flush puts the counts back, and they are retried with the next flush.
+ * <p>
+ * The delegate is not a bean of its own, so the lifecycle callbacks are passed on to it.
+ */
+public class RollupAuditSink implements AuditSink, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollupAuditSink.class);
+
+    static final String UPSERT_SQL = "INSERT INTO university.log_rollups (action_code, minute, success_count) VALUES (?, ?, ?) " +
+            "ON CONFLICT (action_code, minute) DO UPDATE SET success_count = log_rollups.success_count + EXCLUDED.success_count";
+
+    private final AuditSink delegate;
+    private final JdbcTemplate jdbcTemplate;
+    private final LogActionDictionary actionDictionary;
+    private final Set<String> rollupActions;
+
+    // Success counters per minute and action
+    private final ConcurrentMap<LocalDateTime, ConcurrentMap<String, LongAdder>> counters = new ConcurrentHashMap<>();
+
+    public RollupAuditSink(AuditSink delegate, JdbcTemplate jdbcTemplate, LogActionDictionary actionDictionary, Set<String> rollupActions) {
+        this.delegate = delegate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.actionDictionary = actionDictionary;
+        this.rollupActions = Set.copyOf(rollupActions);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        if (delegate instanceof InitializingBean initializingBean) initializingBean.afterPropertiesSet();
+    }
+
+    @Override
+    public void record(Log log) {
+        if (log.getStatus() != Log.STATUS_SUCCESS || !rollupActions.contains(log.getAction())) {
+            delegate.record(log);
+            return;
+        }
+
+        LocalDateTime minute = (log.getTimestamp() == null ? LocalDateTime.now() : log.getTimestamp()).truncatedTo(ChronoUnit.MINUTES);
+        counters.computeIfAbsent(minute, m -> new ConcurrentHashMap<>())
+                .computeIfAbsent(log.getAction(), a -> new LongAdder())
+                .increment();
+    }
+
+    @Scheduled(fixedDelayString = "${university.audit.rollup.flush-interval-ms:15000}")
+    public void flush() {
+        flushBefore(LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusMinutes(1));
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        // Request threads are gone by now, so every minute including the current one is complete
+        flushBefore(LocalDateTime.MAX);
+        if (delegate instanceof DisposableBean disposableBean) disposableBean.destroy();
+    }
+
+    /**
+     * Successes counted in memory since {@code since} and not yet flushed, per action.
+     */
+    public Map<String, Long> pendingSuccesses(LocalDateTime since) {
+        LocalDateTime from = since.truncatedTo(ChronoUnit.MINUTES);
+        Map<String, Long> pending = new TreeMap<>();
+        counters.forEach((minute, actions) -> {
+            if (minute.isBefore(from)) return;
+            actions.forEach((action, count) -> pending.merge(action, count.sum(), Long::sum));
+        });
+        return pending;
+    }
+
+    private void flushBefore(LocalDateTime end) {
+        List<Object[]> rows = new ArrayList<>();
+        Map<LocalDateTime, Map<String, LongAdder>> flushed = new TreeMap<>();
+
+        for (Iterator<Entry<LocalDateTime, ConcurrentMap<String, LongAdder>>> it = counters.entrySet().iterator(); it.hasNext(); ) {
+            Entry<LocalDateTime, ConcurrentMap<String, LongAdder>> minute = it.next();
+            if (!minute.getKey().isBefore(end)) continue;
+
+            it.remove();
+            flushed.put(minute.getKey(), minute.getValue());
+            minute.getValue().forEach((action, count) ->
+                    rows.add(new Object[]{actionDictionary.codeOf(action), Timestamp.valueOf(minute.getKey()), count.sum()}));
+        }
+        if (rows.isEmpty()) return;
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        } catch (RuntimeException e) {
+            logger.error("Failed to write {} audit rollups, keeping them for the next flush", rows.size(), e);
+            flushed.forEach((minute, actions) -> actions.forEach((action, count) ->
+                    counters.computeIfAbsent(minute, m -> new ConcurrentHashMap<>())
+                            .computeIfAbsent(action, a -> new LongAdder())
+                            .add(count.sum())));
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.service.audit;
+
+import com.example.entity.Log;
+import com.example.repository.LogRepository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * AuditSink that saves every event through {@link LogRepository} in a new transaction.
+ * <p>
+ * This is the original Propagation.REQUIRES_NEW behaviour: the event is committed independently of the caller's
+ * transaction, at the price of a second connection and a second commit per call.
+ */
+public class TransactionalAuditSink implements AuditSink {
+
+    private final LogRepository logRepository;
+    private final LogActionDictionary actionDictionary;
+    private final TransactionTemplate transactionTemplate;
+
+    public TransactionalAuditSink(LogRepository logRepository, LogActionDictionary actionDictionary, PlatformTransactionManager transactionManager) {
+        this.logRepository = logRepository;
+        this.actionDictionary = actionDictionary;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void record(Log log) {
+        log.setActionCode(actionDictionary.codeOf(log.getAction()));
+        transactionTemplate.executeWithoutResult(status -> logRepository.save(log));
+    }
+}
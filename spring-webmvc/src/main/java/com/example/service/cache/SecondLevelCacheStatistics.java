@@ -0,0 +1,49 @@
+package com.example.service.cache;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-region counters of the Hibernate second-level cache and totals of the query cache.
+ * <p>
+ * Counters are only collected when {@code hibernate.generate_statistics} is enabled; otherwise they stay at zero.
+ */
+@Component
+public class SecondLevelCacheStatistics {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheStatistics(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public Map<String, Map<String, Long>> getStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Map<String, Long>> snapshot = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) continue;
+
+            Map<String, Long> values = new TreeMap<>();
+            values.put("hits", region.getHitCount());
+            values.put("misses", region.getMissCount());
+            values.put("puts", region.getPutCount());
+            values.put("elementsInMemory", region.getElementCountInMemory());
+            snapshot.put(regionName, values);
+        }
+
+        Map<String, Long> queryCache = new TreeMap<>();
+        queryCache.put("hits", statistics.getQueryCacheHitCount());
+        queryCache.put("misses", statistics.getQueryCacheMissCount());
+        queryCache.put("puts", statistics.getQueryCachePutCount());
+        snapshot.put("queryCache", queryCache);
+        return snapshot;
+    }
+}
@@ -0,0 +1,64 @@
+-- Baseline of the university schema.
+-- Every statement is idempotent so the migration also applies to databases that were created by ddl-auto=update.
+
+CREATE SCHEMA IF NOT EXISTS university;
+
+CREATE TABLE IF NOT EXISTS university.students (
+    id            uuid         NOT NULL,
+    name          varchar(255),
+    email         varchar(255),
+    major         varchar(255),
+    year          integer      NOT NULL,
+    international boolean      NOT NULL,
+    CONSTRAINT students_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS university.courses (
+    id         uuid         NOT NULL,
+    name       varchar(255),
+    instructor varchar(255),
+    schedule   varchar(255),
+    capacity   integer      NOT NULL,
+    online     boolean      NOT NULL,
+    startDate  timestamp,
+    CONSTRAINT courses_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS university.enrollments (
+    id              uuid         NOT NULL,
+    student_id      uuid,
+    course_id       uuid,
+    enrollmentDate  timestamp,
+    grade           integer      NOT NULL,
+    CONSTRAINT enrollments_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_enrollments_student_course UNIQUE (student_id, course_id),
+    CONSTRAINT fk_enrollments_student FOREIGN KEY (student_id) REFERENCES university.students (id),
+    CONSTRAINT fk_enrollments_course FOREIGN KEY (course_id) REFERENCES university.courses (id)
+);
+
+CREATE TABLE IF NOT EXISTS university.logs (
+    id        uuid         NOT NULL,
+    action    varchar(255),
+    outcome   varchar(255),
+    timestamp timestamp,
+    CONSTRAINT logs_pkey PRIMARY KEY (id)
+);
+
+-- Students: keyset pagination (name, id), findByMajor, findByYear, findByInternational
+CREATE INDEX IF NOT EXISTS idx_students_name_id ON university.students (name, id);
+CREATE INDEX IF NOT EXISTS idx_students_major ON university.students (major);
+CREATE INDEX IF NOT EXISTS idx_students_year ON university.students (year);
+CREATE INDEX IF NOT EXISTS idx_students_international ON university.students (international);
+
+-- Courses: keyset pagination and findByName (name, id), findByInstructor, findByOnline.
+-- capacity is left unindexed: it changes on every enrollment and an index on it would rule out HOT updates.
+CREATE INDEX IF NOT EXISTS idx_courses_name_id ON university.courses (name, id);
+CREATE INDEX IF NOT EXISTS idx_courses_instructor ON university.courses (instructor);
+CREATE INDEX IF NOT EXISTS idx_courses_online ON university.courses (online);
+
+-- Enrollments: both foreign keys are indexed.
+-- findByStudentId uses uk_enrollments_student_course (student_id, course_id); findByCourseId and the course keyset pages use (course_id, id).
+CREATE INDEX IF NOT EXISTS idx_enrollments_course_id ON university.enrollments (course_id, id);
+
+-- Logs: time-range queries
+CREATE INDEX IF NOT EXISTS idx_logs_timestamp ON university.logs (timestamp);
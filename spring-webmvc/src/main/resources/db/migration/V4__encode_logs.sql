@@ -0,0 +1,46 @@
+-- Store audit rows in a compact encoded form.
+-- The action becomes a smallint code from university.log_actions, and the outcome becomes a status
+-- (0 = 'Success', 1 = 'Failure: ' || message, 2 = message verbatim) plus only the text the status does not imply.
+-- The partitioned table is renamed to log_records; its partitions keep their names.
+-- A university.logs view shows the rows in their original form to reporting queries.
+-- Dropped columns free no space in existing partitions; it is reclaimed as those partitions age out of the retention period.
+
+CREATE TABLE university.log_actions (
+    code smallint     GENERATED BY DEFAULT AS IDENTITY,
+    name varchar(255) NOT NULL,
+    CONSTRAINT log_actions_pkey PRIMARY KEY (code),
+    CONSTRAINT uk_log_actions_name UNIQUE (name)
+);
+
+INSERT INTO university.log_actions (name)
+SELECT DISTINCT coalesce(action, '') FROM university.logs;
+
+ALTER TABLE university.logs
+    ADD COLUMN action_code smallint,
+    ADD COLUMN status      smallint,
+    ADD COLUMN message     text;
+
+UPDATE university.logs l
+SET action_code = a.code,
+    status      = CASE WHEN l.outcome = 'Success' THEN 0 WHEN l.outcome LIKE 'Failure: %' THEN 1 ELSE 2 END,
+    message     = CASE WHEN l.outcome = 'Success' THEN NULL WHEN l.outcome LIKE 'Failure: %' THEN substr(l.outcome, 10) ELSE l.outcome END
+FROM university.log_actions a
+WHERE a.name = coalesce(l.action, '');
+
+ALTER TABLE university.logs
+    ALTER COLUMN action_code SET NOT NULL,
+    ALTER COLUMN status SET NOT NULL,
+    DROP COLUMN action,
+    DROP COLUMN outcome;
+
+ALTER TABLE university.logs RENAME TO log_records;
+ALTER TABLE university.log_records RENAME CONSTRAINT logs_pkey TO log_records_pkey;
+ALTER INDEX university.idx_logs_timestamp RENAME TO idx_log_records_timestamp;
+
+CREATE VIEW university.logs AS
+SELECT r.id,
+       a.name AS action,
+       CASE r.status WHEN 0 THEN 'Success' WHEN 1 THEN 'Failure: ' || r.message ELSE r.message END AS outcome,
+       r.timestamp
+FROM university.log_records r
+JOIN university.log_actions a ON a.code = r.action_code;
@@ -0,0 +1,12 @@
+-- Per-minute success counts of the audit actions that are rolled up instead of written as one row per event.
+-- RollupAuditSink adds to these rows; LogPartitionManager deletes them after the log retention period.
+
+CREATE TABLE university.log_rollups (
+    action_code   smallint     NOT NULL,
+    minute        timestamp    NOT NULL,
+    success_count bigint       NOT NULL,
+    CONSTRAINT log_rollups_pkey PRIMARY KEY (action_code, minute),
+    CONSTRAINT fk_log_rollups_action FOREIGN KEY (action_code) REFERENCES university.log_actions (code)
+);
+
+CREATE INDEX idx_log_rollups_minute ON university.log_rollups (minute);
@@ -0,0 +1,10 @@
+-- Composite indexes for the audit log query API: every query is ordered by (timestamp, id) descending and seeks on
+-- the index that starts with its equality criterion, or on (timestamp, id) when only a time range is given.
+-- Indexes on the partitioned table are created on every partition, including the ones LogPartitionManager adds later.
+-- The (timestamp, id) index also serves retention and replaces the single-column timestamp index.
+
+CREATE INDEX idx_log_records_timestamp_id ON university.log_records (timestamp, id);
+CREATE INDEX idx_log_records_action_timestamp_id ON university.log_records (action_code, timestamp, id);
+CREATE INDEX idx_log_records_status_timestamp_id ON university.log_records (status, timestamp, id);
+
+DROP INDEX university.idx_log_records_timestamp;
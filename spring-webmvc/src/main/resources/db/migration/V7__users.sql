@@ -0,0 +1,15 @@
+-- Users and their authorities, which used to be kept in memory and were lost on every restart.
+-- Authorities are removed together with their user.
+
+CREATE TABLE university.users (
+    username varchar(100) NOT NULL,
+    password varchar(255) NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (username)
+);
+
+CREATE TABLE university.user_authorities (
+    username  varchar(100) NOT NULL,
+    authority varchar(50)  NOT NULL,
+    CONSTRAINT user_authorities_pkey PRIMARY KEY (username, authority),
+    CONSTRAINT fk_user_authorities_user FOREIGN KEY (username) REFERENCES university.users (username) ON DELETE CASCADE
+);
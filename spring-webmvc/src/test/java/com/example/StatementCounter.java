@@ -0,0 +1,91 @@
+package com.example;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Counts the statements that the current thread sends through the application DataSource, and records the SQL it prepares.
+ * <p>
+ * Every execute, executeQuery and executeUpdate is one round trip to the database, and so is every executeBatch, however many rows
+ * it carries. Only the thread inside {@link #record(Runnable)} is counted, so background writers such as the audit worker do not
+ * disturb the numbers. Declare it in a test context to wrap the {@code dataSource} bean.
+ */
+public class StatementCounter implements BeanPostProcessor {
+
+    private static final Set<String> STATEMENTS = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+    private static final Set<String> BATCHES = Set.of("executeBatch", "executeLargeBatch");
+    private static final Set<String> PREPARES = Set.of("prepareStatement", "prepareCall");
+    private static final Set<Class<?>> WRAPPED = Set.of(Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class);
+
+    private static final ThreadLocal<Recording> RECORDING = new ThreadLocal<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        return "dataSource".equals(beanName) ? wrap(bean, DataSource.class) : bean;
+    }
+
+    public Recording record(Runnable action) {
+        Recording recording = new Recording();
+        RECORDING.set(recording);
+        try {
+            action.run();
+        } finally {
+            RECORDING.remove();
+        }
+        return recording;
+    }
+
+    private static Object wrap(Object target, Class<?> type) {
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals": return proxy == args[0];
+                case "hashCode": return System.identityHashCode(proxy);
+                default: break;
+            }
+
+            Recording recording = RECORDING.get();
+            if (recording != null && Statement.class.isAssignableFrom(method.getDeclaringClass())) {
+                if (STATEMENTS.contains(method.getName())) recording.statements++;
+                else if (BATCHES.contains(method.getName())) recording.batches++;
+            } else if (recording != null && PREPARES.contains(method.getName())) {
+                recording.sql.add((String) args[0]);
+            }
+
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+            return result != null && WRAPPED.contains(method.getReturnType()) ? wrap(result, method.getReturnType()) : result;
+        });
+    }
+
+    public static final class Recording {
+
+        private long statements;
+        private long batches;
+        private final List<String> sql = new ArrayList<>();
+
+        // Statements executed one at a time
+        public long getStatements() { return statements; }
+
+        // Batches executed, one round trip each
+        public long getBatches() { return batches; }
+
+        public long getRoundTrips() { return statements + batches; }
+
+        // The SQL of the prepared statements and calls, in order
+        public List<String> getSql() { return sql; }
+    }
+}
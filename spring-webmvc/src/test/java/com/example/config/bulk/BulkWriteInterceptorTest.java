@@ -0,0 +1,87 @@
+package com.example.config.bulk;
+
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import javax.servlet.DispatcherType;
+import java.util.concurrent.Callable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Bulk mode is requested for exactly the lifetime of a request, on whichever thread serves it, and never stays requested on a container thread.
+ */
+public class BulkWriteInterceptorTest {
+
+    private final BulkWriteInterceptor interceptor = new BulkWriteInterceptor();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @After
+    public void containerThreadIsReleased() {
+        assertFalse(BulkWriteMode.isRequested());
+    }
+
+    @Test
+    public void headerRequestsBulkModeUntilTheRequestCompletes() {
+        MockHttpServletRequest request = request(true);
+
+        interceptor.preHandle(request, response, null);
+        assertTrue(BulkWriteMode.isRequested());
+
+        interceptor.afterCompletion(request, response, null, null);
+    }
+
+    @Test
+    public void requestsWithoutTheHeaderAreNotBulk() {
+        MockHttpServletRequest request = request(false);
+
+        interceptor.preHandle(request, response, null);
+        assertFalse(BulkWriteMode.isRequested());
+
+        interceptor.afterCompletion(request, response, null, null);
+    }
+
+    @Test
+    public void asyncRequestsUseBulkModeOnTheirOwnThread() throws Exception {
+        MockHttpServletRequest request = request(true);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        asyncManager.setTaskExecutor(new SimpleAsyncTaskExecutor());
+
+        // REQUEST dispatch: the handler starts the async body, then the container thread is handed back
+        interceptor.preHandle(request, response, null);
+        Callable<Boolean> body = BulkWriteMode::isRequested;
+        asyncManager.startCallableProcessing(body);
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+        assertFalse(BulkWriteMode.isRequested());
+
+        assertEquals(Boolean.TRUE, awaitResult(asyncManager));
+
+        // ASYNC dispatch that writes the result
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, null);
+        assertFalse(BulkWriteMode.isRequested());
+        interceptor.afterCompletion(request, response, null, null);
+    }
+
+    private static MockHttpServletRequest request(boolean bulkWrite) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/university/enroll/bulk");
+        request.setAsyncSupported(true);
+        if (bulkWrite) request.addHeader(BulkWriteInterceptor.HEADER, "true");
+        return request;
+    }
+
+    private static Object awaitResult(WebAsyncManager asyncManager) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!asyncManager.hasConcurrentResult() && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        return asyncManager.getConcurrentResult();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.entity.id;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UuidV7Test {
+
+    @Test
+    public void isVersion7WithTheIetfVariant() {
+        UUID id = UuidV7.generate();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    @Test
+    public void startsWithTheCurrentUnixMillis() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.generate();
+        long after = System.currentTimeMillis();
+
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue("Timestamp " + millis + " outside [" + before + ", " + after + "]", millis >= before && millis <= after + 1_000);
+    }
+
+    // Each id sorts after all earlier ones, as PostgreSQL compares uuids, so new rows go to the right edge of the primary key index;
+    // far more than 4096 ids are generated within one millisecond here
+    @Test
+    public void sortsInGenerationOrder() {
+        UUID previous = UuidV7.generate();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7.generate();
+            assertTrue(previous + " does not sort before " + next, compareAsPostgres(previous, next) < 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    public void staysUniqueAndOrderedPerThreadUnderContention() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) ids.add(UuidV7.generate());
+                    return ids;
+                }));
+            }
+
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> ids = future.get();
+                for (int i = 1; i < ids.size(); i++) assertTrue(compareAsPostgres(ids.get(i - 1), ids.get(i)) < 0);
+                all.addAll(ids);
+            }
+            assertEquals(8 * 20_000, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // PostgreSQL orders uuids by their bytes, unsigned
+    private static int compareAsPostgres(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.model.university;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+public class PageCursorTest {
+
+    private static final UUID ID = UUID.fromString("0190f0c4-8b2a-7c3d-9e4f-0123456789ab");
+
+    @Test
+    public void roundTripsKeyAndId() {
+        PageCursor cursor = PageCursor.decode(new PageCursor("Physics: 101", ID).encode());
+
+        assertEquals("Physics: 101", cursor.getKey());
+        assertEquals(ID, cursor.getId());
+    }
+
+    @Test
+    public void keepsEmptyAndNullKeysApart() {
+        PageCursor empty = PageCursor.decode(new PageCursor("", ID).encode());
+        PageCursor none = PageCursor.decode(PageCursor.of(ID).encode());
+
+        assertEquals("", empty.getKey());
+        assertNull(none.getKey());
+        assertEquals(ID, none.getId());
+    }
+
+    @Test
+    public void blankTokenStartsFromTheFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+    }
+
+    @Test
+    public void rejectsForeignTokens() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("bm90LWEtdXVpZDprZXk"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.repository;
+
+import com.example.PostgresIntegrationTest;
+import com.example.entity.Course;
+import com.example.service.UniversityService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Repeated reads of a course and of the cached course queries are served by the second-level and query caches without any SQL,
+ * also while other courses take and release seats.
+ */
+public class CourseCacheTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UniversityService universityService;
+
+    private Statistics statistics;
+
+    @Before
+    public void statistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void repeatedReadsIssueNoSql() {
+        Course course = newCourse("Cached " + UUID.randomUUID(), 5);
+        read(course);
+
+        statistics.clear();
+        read(course);
+        read(course);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void enrollmentsInOtherCoursesKeepTheCourseCached() {
+        Course course = newCourse("Cached " + UUID.randomUUID(), 5);
+        UUID otherCourseId = newCourse("Busy " + UUID.randomUUID(), 5).getId();
+        UUID studentId = newStudents(1).get(0);
+        read(course);
+
+        universityService.enrollStudentInCourse(studentId, otherCourseId);
+
+        statistics.clear();
+        read(course);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void takingASeatEvictsOnlyThatCourse() {
+        Course course = newCourse("Cached " + UUID.randomUUID(), 5);
+        UUID studentId = newStudents(1).get(0);
+        read(course);
+
+        universityService.enrollStudentInCourse(studentId, course.getId());
+
+        assertEquals(4, courseRepository.findById(course.getId()).orElseThrow().getCapacity());
+    }
+
+    private void read(Course course) {
+        courseRepository.findById(course.getId()).orElseThrow();
+        courseRepository.findByInstructor(course.getInstructor());
+        courseRepository.findByName(course.getName());
+    }
+}
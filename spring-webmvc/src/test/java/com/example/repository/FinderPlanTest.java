@@ -0,0 +1,100 @@
+package com.example.repository;
+
+import com.example.PostgresIntegrationTest;
+import com.example.StatementCounter;
+import com.example.model.university.LogFilter;
+import com.example.service.audit.LogPartitionManager;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Every derived finder is served by the index the migrations create for it. The SQL that a finder prepares is recorded and
+ * explained as a generic plan, with sequential scans disabled, so a plan that still contains one had no usable index.
+ * findByCapacityGreaterThanEqual is left out: capacity is deliberately unindexed.
+ */
+@ContextConfiguration(locations = "classpath:statement-counting-context.xml", inheritLocations = false)
+public class FinderPlanTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @Autowired
+    private LogPartitionManager logPartitionManager;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void studentFindersUseTheirIndexes() {
+        assertUsesIndex("idx_students_major", () -> studentRepository.findByMajor("Major " + UUID.randomUUID()));
+        assertUsesIndex("idx_students_year", () -> studentRepository.findByYear(4));
+        assertUsesIndex("idx_students_international", () -> studentRepository.findByInternational(true));
+    }
+
+    // The course finders go through the query cache, so every call asks for a value that has not been cached yet
+    @Test
+    public void courseFindersUseTheirIndexes() {
+        assertUsesIndex("idx_courses_name_id", () -> courseRepository.findByName("Name " + UUID.randomUUID()));
+        assertUsesIndex("idx_courses_instructor", () -> courseRepository.findByInstructor("Instructor " + UUID.randomUUID()));
+        assertUsesIndex("idx_courses_online", () -> courseRepository.findByOnline(true));
+    }
+
+    @Test
+    public void enrollmentFindersUseTheForeignKeyIndexes() {
+        assertUsesIndex("idx_enrollments_course_id", () -> enrollmentRepository.findByCourseId(UUID.randomUUID()));
+        assertUsesIndex("uk_enrollments_student_course", () -> enrollmentRepository.findByStudentId(UUID.randomUUID()));
+    }
+
+    // The logs table of V1 is now partitioned as log_records; every partition has the (timestamp, id) index that replaced logs(timestamp)
+    @Test
+    public void logTimeRangeUsesTheTimestampIndex() {
+        logPartitionManager.maintain();
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+
+        String plan = assertUsesIndex("timestamp_id_idx",
+                () -> logRepository.findFirstSummaries(new LogFilter(null, null, today, today.plusDays(1)), 50));
+        assertFalse(plan, plan.contains("action_code_timestamp_id_idx") || plan.contains("status_timestamp_id_idx"));
+    }
+
+    private String assertUsesIndex(String index, Runnable finder) {
+        List<String> sql = statementCounter.record(finder).getSql();
+        assertEquals(sql.toString(), 1, sql.size());
+
+        String plan = explain(sql.get(0));
+        assertTrue(plan, plan.contains(index));
+        assertFalse(plan, plan.contains("Seq Scan"));
+        return plan;
+    }
+
+    // A generic plan needs no parameter values; the JDBC placeholders are numbered for it
+    private String explain(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') numbered.append('$').append(++parameter);
+            else numbered.append(c);
+        }
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numbered, String.class));
+        });
+    }
+}
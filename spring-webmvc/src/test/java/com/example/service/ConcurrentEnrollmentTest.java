@@ -0,0 +1,161 @@
+package com.example.service;
+
+import com.example.PostgresIntegrationTest;
+import com.example.model.university.EnrollmentPair;
+import com.example.model.university.EnrollmentResult;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@value #ENROLLERS} enrollers race for the {@value #CAPACITY} seats of one course on {@value #THREADS} threads, each with a
+ * connection of its own; the course must end up with exactly {@code capacity} enrollments and no seat left.
+ */
+public class ConcurrentEnrollmentTest extends PostgresIntegrationTest {
+
+    private static final int THREADS = 100;
+    private static final int ENROLLERS = 500;
+    private static final int CAPACITY = 100;
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Test
+    public void singleEnrollmentsNeverOverbook() throws Exception {
+        UUID courseId = newCourse("Race " + UUID.randomUUID(), CAPACITY).getId();
+        List<UUID> students = newStudents(ENROLLERS);
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (UUID studentId : students) {
+            tasks.add(() -> {
+                try {
+                    universityService.enrollStudentInCourse(studentId, courseId);
+                    return true;
+                } catch (RuntimeException e) {
+                    assertEquals("Course is already full.", e.getMessage());
+                    return false;
+                }
+            });
+        }
+
+        assertEquals(CAPACITY, count(runConcurrently(tasks), true));
+        assertEquals(CAPACITY, enrollmentCount(courseId));
+        assertEquals(0, seatsLeft(courseId));
+    }
+
+    @Test
+    public void bulkEnrollmentsNeverOverbook() throws Exception {
+        UUID courseId = newCourse("Bulk race " + UUID.randomUUID(), CAPACITY).getId();
+        List<UUID> students = newStudents(ENROLLERS);
+
+        List<Callable<List<EnrollmentResult>>> tasks = new ArrayList<>();
+        for (int from = 0; from < students.size(); from += 4) {
+            List<EnrollmentPair> pairs = students.subList(from, from + 4).stream()
+                    .map(studentId -> new EnrollmentPair(studentId, courseId))
+                    .toList();
+            tasks.add(() -> universityService.enrollStudentsInCourses(pairs));
+        }
+
+        long enrolled = 0;
+        for (List<EnrollmentResult> results : runConcurrently(tasks)) {
+            for (EnrollmentResult result : results) {
+                if (result.getStatus() == EnrollmentResult.Status.ENROLLED) enrolled++;
+                else assertEquals(EnrollmentResult.Status.COURSE_FULL, result.getStatus());
+            }
+        }
+
+        assertEquals(CAPACITY, enrolled);
+        assertEquals(CAPACITY, enrollmentCount(courseId));
+        assertEquals(0, seatsLeft(courseId));
+    }
+
+    @Test
+    public void singleAndBulkEnrollmentsShareTheSeats() throws Exception {
+        UUID courseId = newCourse("Mixed race " + UUID.randomUUID(), CAPACITY).getId();
+        List<UUID> students = newStudents(ENROLLERS);
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < students.size(); i++) {
+            UUID studentId = students.get(i);
+            if (i % 2 == 0) {
+                tasks.add(() -> {
+                    try {
+                        universityService.enrollStudentInCourse(studentId, courseId);
+                        return 1;
+                    } catch (RuntimeException e) {
+                        return 0;
+                    }
+                });
+            } else {
+                tasks.add(() -> (int) universityService.enrollStudentsInCourses(List.of(new EnrollmentPair(studentId, courseId))).stream()
+                        .filter(result -> result.getStatus() == EnrollmentResult.Status.ENROLLED)
+                        .count());
+            }
+        }
+
+        assertEquals(CAPACITY, runConcurrently(tasks).stream().mapToInt(Integer::intValue).sum());
+        assertEquals(CAPACITY, enrollmentCount(courseId));
+        assertEquals(0, seatsLeft(courseId));
+    }
+
+    @Test
+    public void overlappingImportsEnrollEachPairOnce() throws Exception {
+        UUID courseId = newCourse("Overlap " + UUID.randomUUID(), ENROLLERS).getId();
+        List<EnrollmentPair> pairs = newStudents(CAPACITY).stream()
+                .map(studentId -> new EnrollmentPair(studentId, courseId))
+                .toList();
+
+        // Every import carries all pairs, so whichever commits later finds them enrolled, at lookup or at insert
+        List<Callable<List<EnrollmentResult>>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) tasks.add(() -> universityService.enrollStudentsInCourses(pairs));
+
+        long enrolled = 0;
+        for (List<EnrollmentResult> results : runConcurrently(tasks)) {
+            for (EnrollmentResult result : results) {
+                if (result.getStatus() == EnrollmentResult.Status.ENROLLED) enrolled++;
+                else assertEquals(EnrollmentResult.Status.ALREADY_ENROLLED, result.getStatus());
+            }
+        }
+
+        assertEquals(CAPACITY, enrolled);
+        assertEquals(CAPACITY, enrollmentCount(courseId));
+        assertEquals(ENROLLERS - CAPACITY, seatsLeft(courseId));
+    }
+
+    // Starts all tasks at once on THREADS threads and returns their results in task order
+    static <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) results.add(future.get(5, TimeUnit.MINUTES));
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long count(List<Boolean> results, boolean value) {
+        return results.stream().filter(result -> result == value).count();
+    }
+}
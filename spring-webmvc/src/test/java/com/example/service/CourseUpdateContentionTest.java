@@ -0,0 +1,109 @@
+package com.example.service;
+
+import com.example.PostgresIntegrationTest;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import static com.example.service.ConcurrentEnrollmentTest.runConcurrently;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * Course renames race each other and the enrollments into the course; a rename must neither overwrite another one
+ * nor give back the seats taken while it ran.
+ */
+public class CourseUpdateContentionTest extends PostgresIntegrationTest {
+
+    private static final int CAPACITY = 10;
+    private static final int RENAMES = 8;
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Test
+    public void staleVersionIsRejected() {
+        UUID courseId = newCourse("Stale " + UUID.randomUUID(), CAPACITY).getId();
+        long version = version(courseId);
+        universityService.updateCourseAndEnrollments(courseId, "Renamed", version);
+
+        CourseVersionConflictException conflict = assertThrows(CourseVersionConflictException.class,
+                () -> universityService.updateCourseAndEnrollments(courseId, "Renamed again", version));
+
+        assertEquals(version + 1, conflict.getCurrentVersion());
+        assertEquals(version + 1, version(courseId));
+        assertEquals("Renamed", name(courseId));
+    }
+
+    @Test
+    public void renamesOfOneVersionHaveOneWinner() throws Exception {
+        UUID courseId = newCourse("Rename race " + UUID.randomUUID(), CAPACITY).getId();
+        long version = version(courseId);
+
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < RENAMES; i++) {
+            String title = "Title " + i;
+            tasks.add(() -> {
+                try {
+                    universityService.updateCourseAndEnrollments(courseId, title, version);
+                    return true;
+                } catch (CourseVersionConflictException e) {
+                    assertEquals(version + 1, e.getCurrentVersion());
+                    return false;
+                }
+            });
+        }
+
+        List<Boolean> results = runConcurrently(tasks);
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        assertEquals(version + 1, version(courseId));
+        assertEquals("Title " + results.indexOf(true), name(courseId));
+    }
+
+    @Test
+    public void renamesKeepTheSeatsTakenConcurrently() throws Exception {
+        UUID courseId = newCourse("Seat race " + UUID.randomUUID(), CAPACITY).getId();
+        List<UUID> students = newStudents(4 * CAPACITY);
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < students.size(); i++) {
+            UUID studentId = students.get(i);
+            tasks.add(() -> {
+                try {
+                    universityService.enrollStudentInCourse(studentId, courseId);
+                    return 1;
+                } catch (RuntimeException e) {
+                    assertEquals("Course is already full.", e.getMessage());
+                    return 0;
+                }
+            });
+            if (i % 5 == 0) {
+                String title = "Title " + i;
+                tasks.add(() -> {
+                    try {
+                        universityService.updateCourseAndEnrollments(courseId, title, null);
+                    } catch (CourseVersionConflictException e) {
+                        // Lost to a concurrent rename; the seats are what this test checks
+                    }
+                    return 0;
+                });
+            }
+        }
+
+        assertEquals(CAPACITY, runConcurrently(tasks).stream().mapToInt(Integer::intValue).sum());
+        assertEquals(CAPACITY, enrollmentCount(courseId));
+        assertEquals(0, seatsLeft(courseId));
+    }
+
+    private long version(UUID courseId) {
+        return jdbcTemplate.queryForObject("SELECT version FROM university.courses WHERE id = ?", Long.class, courseId);
+    }
+
+    private String name(UUID courseId) {
+        return jdbcTemplate.queryForObject("SELECT name FROM university.courses WHERE id = ?", String.class, courseId);
+    }
+}
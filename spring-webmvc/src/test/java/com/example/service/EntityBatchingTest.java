@@ -0,0 +1,116 @@
+package com.example.service;
+
+import com.example.PostgresIntegrationTest;
+import com.example.StatementCounter;
+import com.example.config.bulk.BulkWriteMode;
+import com.example.entity.Enrollment;
+import com.example.model.university.EnrollmentPair;
+import com.example.repository.EnrollmentRepository;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Entity writes go through Hibernate's JDBC batching: one round trip per {@code hibernate.jdbc.batch_size} rows,
+ * or per {@code university.jpa.bulk-batch-size} rows in bulk write mode.
+ */
+@ContextConfiguration(locations = "classpath:statement-counting-context.xml", inheritLocations = false)
+public class EntityBatchingTest extends PostgresIntegrationTest {
+
+    private static final int ROWS = 1000;
+    private static final int BATCH_SIZE = 50;
+    private static final int BULK_BATCH_SIZE = 500;
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private BulkWriteMode bulkWriteMode;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void persistedEnrollmentsAreInsertedInBatches() {
+        UUID courseId = newCourse("Persist " + UUID.randomUUID(), ROWS).getId();
+        List<UUID> students = newStudents(ROWS);
+
+        StatementCounter.Recording recording = statementCounter.record(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Enrollment> enrollments = new ArrayList<>(ROWS);
+            for (UUID studentId : students) {
+                Enrollment enrollment = new Enrollment();
+                enrollment.setStudent(studentRepository.getById(studentId));
+                enrollment.setCourse(courseRepository.getById(courseId));
+                enrollment.setEnrollmentDate(new Date());
+                enrollments.add(enrollment);
+            }
+            enrollmentRepository.saveAll(enrollments);
+        }));
+
+        assertEquals(ROWS, enrollmentCount(courseId));
+        assertEquals(0, recording.getStatements());
+        assertEquals(ROWS / BATCH_SIZE, recording.getBatches());
+    }
+
+    @Test
+    public void recordedGradesAreUpdatedInBatches() {
+        UUID courseId = enrolledCourse();
+        Map<UUID, Integer> grades = grades(courseId, 80);
+
+        StatementCounter.Recording recording = statementCounter.record(() -> universityService.recordGrades(courseId, grades));
+
+        assertEquals(ROWS, gradedCount(courseId, 80));
+        // The stream of enrollments, then the updates of each chunk of 500
+        assertEquals(1, recording.getStatements());
+        assertEquals(ROWS / BATCH_SIZE, recording.getBatches());
+    }
+
+    @Test
+    public void bulkWriteModeUpdatesInLargerBatches() {
+        UUID courseId = enrolledCourse();
+        Map<UUID, Integer> grades = grades(courseId, 90);
+
+        StatementCounter.Recording recording = statementCounter.record(() -> new TransactionTemplate(transactionManager).execute(status ->
+                bulkWriteMode.execute(() -> universityService.recordGrades(courseId, grades))));
+
+        assertEquals(ROWS, gradedCount(courseId, 90));
+        assertEquals(1, recording.getStatements());
+        assertEquals(ROWS / BULK_BATCH_SIZE, recording.getBatches());
+    }
+
+    private UUID enrolledCourse() {
+        UUID courseId = newCourse("Grades " + UUID.randomUUID(), ROWS).getId();
+        universityService.enrollStudentsInCourses(newStudents(ROWS).stream()
+                .map(studentId -> new EnrollmentPair(studentId, courseId))
+                .toList());
+        return courseId;
+    }
+
+    private Map<UUID, Integer> grades(UUID courseId, int grade) {
+        return jdbcTemplate.queryForList("SELECT student_id FROM university.enrollments WHERE course_id = ?", UUID.class, courseId).stream()
+                .collect(Collectors.toMap(Function.identity(), studentId -> grade));
+    }
+
+    private int gradedCount(UUID courseId, int grade) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM university.enrollments WHERE course_id = ? AND grade = ?",
+                Integer.class, courseId, grade);
+    }
+}
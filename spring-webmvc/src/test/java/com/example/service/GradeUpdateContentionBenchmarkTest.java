@@ -0,0 +1,124 @@
+package com.example.service;
+
+import com.example.PostgresIntegrationTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static com.example.service.ConcurrentEnrollmentTest.runConcurrently;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Enrollment throughput into a course while a long grade update of that course runs, with the former REPEATABLE_READ rename
+ * and with the optimistic one of updateCourseAndEnrollments, logged for both.
+ * <p>
+ * A trigger makes every grade update take {@value #SLOW_UPDATE_SECONDS} seconds. The former rename wrote the course row first,
+ * since the pending entity update was flushed before the grade update, and so held the row that every enrollment takes its seat on
+ * until it committed. The optimistic rename writes the course row last, after the grade update.
+ */
+public class GradeUpdateContentionBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(GradeUpdateContentionBenchmarkTest.class);
+
+    private static final int SLOW_UPDATE_SECONDS = 2;
+    private static final int ENROLLED = 10;
+    private static final int ENROLLERS = 50;
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Before
+    public void slowGradeUpdates() {
+        jdbcTemplate.execute("CREATE FUNCTION university.slow_grade_update() RETURNS trigger LANGUAGE plpgsql AS "
+                + "$$ BEGIN PERFORM pg_sleep(" + SLOW_UPDATE_SECONDS + "); RETURN NULL; END $$");
+        jdbcTemplate.execute("CREATE TRIGGER slow_grade_update AFTER UPDATE ON university.enrollments "
+                + "FOR EACH STATEMENT EXECUTE FUNCTION university.slow_grade_update()");
+    }
+
+    @After
+    public void dropTrigger() {
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS slow_grade_update ON university.enrollments");
+        jdbcTemplate.execute("DROP FUNCTION IF EXISTS university.slow_grade_update()");
+    }
+
+    @Test
+    public void enrollmentsDoNotWaitForTheOptimisticRename() throws Exception {
+        double repeatableRead = enrollmentsPerSecondDuring(this::renameWithRepeatableRead);
+        double optimistic = enrollmentsPerSecondDuring(courseId -> universityService.updateCourseAndEnrollments(courseId, "Renamed", null));
+
+        logger.info("{} enrollments during a {} s grade update: {} /s with the REPEATABLE_READ rename, {} /s with the optimistic rename",
+                ENROLLERS, SLOW_UPDATE_SECONDS, Math.round(repeatableRead), Math.round(optimistic));
+
+        assertTrue("optimistic " + optimistic + " /s, REPEATABLE_READ " + repeatableRead + " /s", optimistic > repeatableRead);
+    }
+
+    // The rename as it was before the course had a version: the course row is written before the enrollments are updated
+    private void renameWithRepeatableRead(UUID courseId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE university.courses SET name = ?, version = version + 1 WHERE id = ?", "Renamed", courseId);
+            jdbcTemplate.update("UPDATE university.enrollments SET grade = grade + 1, version = version + 1 WHERE course_id = ?", courseId);
+        });
+    }
+
+    private double enrollmentsPerSecondDuring(Consumer<UUID> gradeUpdate) throws Exception {
+        UUID courseId = newCourse("Contention " + UUID.randomUUID(), ENROLLED + ENROLLERS).getId();
+        newStudents(ENROLLED).forEach(studentId -> universityService.enrollStudentInCourse(studentId, courseId));
+        List<UUID> students = newStudents(ENROLLERS);
+
+        List<Callable<Boolean>> enrollments = new ArrayList<>();
+        for (UUID studentId : students) {
+            enrollments.add(() -> {
+                universityService.enrollStudentInCourse(studentId, courseId);
+                return true;
+            });
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> updating = executor.submit(() -> gradeUpdate.accept(courseId));
+            awaitSlowGradeUpdate();
+
+            long start = System.nanoTime();
+            runConcurrently(enrollments);
+            long elapsedNanos = System.nanoTime() - start;
+
+            updating.get(1, TimeUnit.MINUTES);
+            assertEquals(ENROLLED + ENROLLERS, enrollmentCount(courseId));
+            assertEquals(0, seatsLeft(courseId));
+            return ENROLLERS * 1e9 / elapsedNanos;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Waits until the grade update sleeps in its trigger, so the enrollments start while it is running
+    private void awaitSlowGradeUpdate() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (jdbcTemplate.queryForObject("SELECT count(*) FROM pg_stat_activity WHERE wait_event = 'PgSleep'", Integer.class) == 0) {
+            assertTrue("The grade update did not start", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+}
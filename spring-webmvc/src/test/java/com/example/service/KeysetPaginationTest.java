@@ -0,0 +1,54 @@
+package com.example.service;
+
+import com.example.PostgresIntegrationTest;
+import com.example.model.university.CourseSummary;
+import com.example.model.university.CursorPage;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Walking all pages returns every course exactly once, including the courses without a name, which come last.
+ */
+public class KeysetPaginationTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Test
+    public void pagesThroughNamedAndUnnamedCourses() {
+        Set<UUID> created = new HashSet<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(newCourse("Keyset " + i, 1).getId());
+            created.add(newCourse(null, 1).getId());
+        }
+        created.add(newCourse("", 1).getId());
+
+        List<CourseSummary> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<CourseSummary> page = universityService.getCoursesPage(cursor, 3, false);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        Set<UUID> ids = new HashSet<>();
+        for (CourseSummary course : seen) assertTrue("Course returned twice: " + course.getId(), ids.add(course.getId()));
+        assertTrue(ids.containsAll(created));
+        assertEquals(courseRepository.count(), ids.size());
+
+        // Unnamed courses sort after all named ones
+        int firstUnnamed = 0;
+        while (firstUnnamed < seen.size() && seen.get(firstUnnamed).getName() != null) firstUnnamed++;
+        for (CourseSummary course : seen.subList(firstUnnamed, seen.size())) assertNull(course.getName());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.service.audit;
+
+import com.example.PostgresIntegrationTest;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Codes of the smallint identity are only taken by actions that are new; a fresh dictionary, as after a restart, looks known actions up.
+ */
+public class LogActionDictionaryTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void knownActionsTakeNoNewCode() {
+        String action = "Dictionary Test " + UUID.randomUUID();
+        short code = new LogActionDictionary(jdbcTemplate, transactionManager).codeOf(action);
+        long lastCode = lastCode();
+
+        for (int restart = 0; restart < 10; restart++) {
+            assertEquals(code, new LogActionDictionary(jdbcTemplate, transactionManager).codeOf(action));
+        }
+        assertEquals(lastCode, lastCode());
+    }
+
+    private long lastCode() {
+        String sequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence('university.log_actions', 'code')", String.class);
+        return jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+    }
+}
@@ -0,0 +1,140 @@
+package com.project.mvc.config;
+
+import com.project.mvc.repositories.LogRepository;
+import com.project.mvc.services.archive.LogArchive;
+import com.project.mvc.services.audit.ActionFailureRates;
+import com.project.mvc.services.audit.AuditOverflowPolicy;
+import com.project.mvc.services.audit.AuditJournalLoader;
+import com.project.mvc.services.audit.AuditSink;
+import com.project.mvc.services.audit.BatchingAuditSink;
+import com.project.mvc.services.audit.JournalAuditSink;
+import com.project.mvc.services.audit.LogActionDictionary;
+import com.project.mvc.services.audit.LogPartitionManager;
+import com.project.mvc.services.audit.RollupAuditSink;
+import com.project.mvc.services.audit.TransactionalAuditSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Configuration class for the audit log sink used by UniversityService.
+ *
+ * <p>
+ * {@code university.audit.mode=batched} (the default) queues audit events and writes them in JDBC batches on a background worker.
+ * {@code university.audit.mode=direct} keeps the original behaviour of one REQUIRES_NEW transaction per event.
+ * {@code university.audit.mode=journal} appends events to a memory-mapped journal on local disk that is loaded with COPY in the background,
+ * so that events survive a crash of the JVM.
+ * Successes of the actions listed in {@code university.audit.rollup.actions} are only counted per minute by a {@link RollupAuditSink}
+ * in front of any of these sinks; their failures, and all events of other actions, keep their full rows.
+ * </p>
+ *
+ * <p>
+ * Audit rows encode their action through a shared {@link LogActionDictionary}.
+ * The daily partitions of university.log_records are created ahead and dropped after the retention period by a scheduled {@link LogPartitionManager}.
+ * With {@code university.logs.archive.enabled=true} (the default) their rows are first written to the {@link LogArchive} on local disk.
+ * </p>
+ */
+@Configuration
+@EnableScheduling
+public class AuditConfig {
+
+    @Value("${university.audit.mode:batched}")
+    private String mode;
+
+    @Value("${university.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${university.audit.batch-size:200}")
+    private int batchSize;
+
+    @Value("${university.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${university.audit.offer-timeout-ms:50}")
+    private long offerTimeoutMs;
+
+    @Value("${university.audit.overflow-policy:BLOCK}")
+    private AuditOverflowPolicy overflowPolicy;
+
+    @Value("${university.audit.journal.directory:audit-journal}")
+    private String journalDirectory;
+
+    @Value("${university.audit.journal.segment-size-bytes:16777216}")
+    private int journalSegmentSize;
+
+    @Value("${university.audit.journal.ship-interval-ms:1000}")
+    private long journalShipIntervalMs;
+
+    @Value("${university.audit.rollup.actions:}")
+    private String rollupActions;
+
+    @Value("${university.logs.partitions.precreate-days:7}")
+    private int partitionPrecreateDays;
+
+    @Value("${university.logs.partitions.retention-days:90}")
+    private int partitionRetentionDays;
+
+    @Value("${university.logs.archive.enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${university.logs.archive.directory:log-archive}")
+    private String archiveDirectory;
+
+    @Value("${university.logs.archive.block-rows:4096}")
+    private int archiveBlockRows;
+
+    @Value("${university.logs.archive.max-segment-rows:5000000}")
+    private long archiveMaxSegmentRows;
+
+    @Bean
+    public LogActionDictionary logActionDictionary(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new LogActionDictionary(jdbcTemplate, transactionManager);
+    }
+
+    @Bean
+    public AuditSink auditSink(JdbcTemplate jdbcTemplate, LogRepository logRepository, LogActionDictionary logActionDictionary,
+                               PlatformTransactionManager transactionManager) {
+        AuditSink sink;
+        if ("direct".equalsIgnoreCase(mode)) {
+            sink = new TransactionalAuditSink(logRepository, logActionDictionary, transactionManager);
+        } else if ("journal".equalsIgnoreCase(mode)) {
+            sink = new JournalAuditSink(Path.of(journalDirectory), journalSegmentSize,
+                    new AuditJournalLoader(jdbcTemplate, transactionManager, logActionDictionary), Duration.ofMillis(journalShipIntervalMs));
+        } else {
+            sink = new BatchingAuditSink(jdbcTemplate, transactionManager, logActionDictionary, queueCapacity, batchSize,
+                    Duration.ofMillis(flushIntervalMs), Duration.ofMillis(offerTimeoutMs), overflowPolicy);
+        }
+
+        Set<String> actions = Arrays.stream(rollupActions.split(","))
+                .map(String::trim)
+                .filter(action -> !action.isEmpty())
+                .collect(Collectors.toSet());
+        return actions.isEmpty() ? sink : new RollupAuditSink(sink, jdbcTemplate, logActionDictionary, actions);
+    }
+
+    @Bean
+    public ActionFailureRates actionFailureRates(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, AuditSink auditSink) {
+        return new ActionFailureRates(jdbcTemplate, transactionManager,
+                auditSink instanceof RollupAuditSink rollupAuditSink ? rollupAuditSink : null);
+    }
+
+    @Bean
+    public LogArchive logArchive(JdbcTemplate jdbcTemplate) {
+        return new LogArchive(Path.of(archiveDirectory), jdbcTemplate, archiveBlockRows, archiveMaxSegmentRows);
+    }
+
+    @Bean
+    public LogPartitionManager logPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, LogArchive logArchive) {
+        return new LogPartitionManager(jdbcTemplate, transactionManager, archiveEnabled ? logArchive : null,
+                partitionPrecreateDays, partitionRetentionDays);
+    }
+}
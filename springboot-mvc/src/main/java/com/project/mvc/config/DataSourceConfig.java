@@ -0,0 +1,74 @@
+package com.project.mvc.config;
+
+import com.project.mvc.config.routing.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Configuration class for the application DataSource with read/write routing.
+ *
+ * <p>
+ * The primary pool is built from the usual {@code spring.datasource.*} and {@code spring.datasource.hikari.*} properties.
+ * When {@code university.datasource.replica.url} is set, a second pool is built for the replica
+ * ({@code university.datasource.replica.*} and {@code university.datasource.replica.hikari.*}) and read-only transactions are routed to it;
+ * otherwise every connection comes from the primary.
+ * </p>
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Value("${university.datasource.replica.url:}")
+    private String replicaUrl;
+
+    @Value("${university.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${university.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${university.datasource.replica.retry-after-ms:30000}")
+    private long replicaRetryAfterMs;
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(DataSourceProperties properties, Environment environment) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        HikariDataSource replica = null;
+        if (!replicaUrl.isBlank()) {
+            replica = new HikariDataSource();
+            replica.setPoolName("university-replica-pool");
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(replicaUrl);
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setReadOnly(true);
+            binder.bind("university.datasource.replica.hikari", Bindable.ofInstance(replica));
+        }
+
+        return new ReadWriteRoutingDataSource(primary, replica, replicaRetryAfterMs);
+    }
+
+    // Physical connections are fetched at the first statement, once the transaction's read-only flag is known
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        dataSource.setDefaultAutoCommit(true);
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+}
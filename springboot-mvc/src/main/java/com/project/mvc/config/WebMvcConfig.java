@@ -1,6 +1,9 @@
 package com.project.mvc.config;
+import com.project.mvc.config.bulk.BulkWriteInterceptor;
+import com.project.mvc.config.routing.ReadYourWritesInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.thymeleaf.templatemode.TemplateMode;
@@ -60,6 +63,12 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry.addRedirectViewController("/account/logout","/logout");
     }
 
+    // Requests sent with X-Read-Your-Writes: true read from the primary instead of the replica
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor());
+        registry.addInterceptor(new BulkWriteInterceptor());
+    }
+
     @Bean
     public ClassLoaderTemplateResolver templateResolver() {
         ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
@@ -14,7 +14,7 @@ import org.springframework.security.web.SecurityFilterChain;
 public class WebSecurityConfig {
 
     @Bean
-    public SecurityFilterChain authorizesRequestsSecurity(HttpSecurity http) throws Exception {
+    public SecurityFilterChain authorizesRequestsSecurity(HttpSecurity http, CustomUserDetailsService customUserDetailsService) throws Exception {
         http
                 .authorizeHttpRequests((requests) -> requests
                         .requestMatchers(
@@ -38,7 +38,7 @@ public class WebSecurityConfig {
                         .permitAll()
                 )
                 .logout(LogoutConfigurer::permitAll)
-                .userDetailsService(customUserDetailsService());
+                .userDetailsService(customUserDetailsService);
 
         return http.build();
     }
@@ -47,10 +47,7 @@ public class WebSecurityConfig {
     public PasswordEncoder passwordEncoder() { return new BCryptPasswordEncoder(); }
 
     @Bean
-    public UserDetailsRepository userDetailsRepository() { return new UserDetailsRepository(); }
-
-    @Bean
-    public CustomUserDetailsService customUserDetailsService() {
-        return new CustomUserDetailsService(userDetailsRepository() ,passwordEncoder());
+    public CustomUserDetailsService customUserDetailsService(UserDetailsRepository userDetailsRepository) {
+        return new CustomUserDetailsService(userDetailsRepository, passwordEncoder());
     }
 }
@@ -0,0 +1,75 @@
+package com.project.mvc.config.bulk;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-request write mode for bulk jobs.
+ * <p>
+ * Entity writes are always sent in JDBC batches of {@code hibernate.jdbc.batch_size}. When bulk mode is requested, either for a whole
+ * request through the {@link BulkWriteInterceptor#HEADER} header or programmatically with {@link #execute(Supplier)}, the Hibernate session
+ * of the current transaction additionally uses batches of {@code university.jpa.bulk-batch-size} and flushes only at commit
+ * (or when the code flushes explicitly), so queries issued in a write loop no longer flush the pending rows one by one.
+ * Bulk-mode code must not rely on reading its own unflushed changes through queries.
+ */
+@Component
+public class BulkWriteMode {
+
+    private static final ThreadLocal<Integer> REQUESTED = ThreadLocal.withInitial(() -> 0);
+
+    private final int bulkBatchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public BulkWriteMode(@Value("${university.jpa.bulk-batch-size:500}") int bulkBatchSize) {
+        this.bulkBatchSize = bulkBatchSize;
+    }
+
+    public static boolean isRequested() {
+        return REQUESTED.get() > 0;
+    }
+
+    // Calls nest; every request must be paired with a release
+    static void request() {
+        REQUESTED.set(REQUESTED.get() + 1);
+    }
+
+    static void release() {
+        int depth = REQUESTED.get() - 1;
+        if (depth <= 0) REQUESTED.remove();
+        else REQUESTED.set(depth);
+    }
+
+    /**
+     * Run the action in bulk mode. Must be called inside the transaction that performs the writes.
+     */
+    public <T> T execute(Supplier<T> action) {
+        request();
+        try {
+            applyIfRequested();
+            return action.get();
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Switch the session of the current transaction to bulk settings if bulk mode is requested on this thread.
+     * The settings last until the session is closed at the end of the transaction.
+     */
+    public void applyIfRequested() {
+        if (!isRequested() || !TransactionSynchronizationManager.isActualTransactionActive()) return;
+
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(bulkBatchSize);
+        session.setHibernateFlushMode(FlushMode.COMMIT);
+    }
+}
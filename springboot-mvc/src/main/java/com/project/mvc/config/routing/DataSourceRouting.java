@@ -0,0 +1,49 @@
+package com.project.mvc.config.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes escape hatch of the {@link ReadWriteRoutingDataSource}.
+ * <p>
+ * While primary routing is forced on the current thread, read-only transactions also run on the primary, so they see
+ * writes the replica may not have replayed yet. Use {@link #onPrimary(Supplier)} around a read that must follow a write,
+ * or send the {@link ReadYourWritesInterceptor#HEADER} header to force it for a whole request.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Integer> PRIMARY_FORCED = ThreadLocal.withInitial(() -> 0);
+
+    private DataSourceRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        forcePrimary();
+        try {
+            return action.get();
+        } finally {
+            release();
+        }
+    }
+
+    public static void runOnPrimary(Runnable action) {
+        onPrimary(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get() > 0;
+    }
+
+    // Calls nest; every forcePrimary must be paired with a release
+    static void forcePrimary() {
+        PRIMARY_FORCED.set(PRIMARY_FORCED.get() + 1);
+    }
+
+    static void release() {
+        int depth = PRIMARY_FORCED.get() - 1;
+        if (depth <= 0) PRIMARY_FORCED.remove();
+        else PRIMARY_FORCED.set(depth);
+    }
+}
@@ -0,0 +1,106 @@
+package com.project.mvc.config.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends connections of read-only transactions to a replica and everything else to the primary.
+ * <p>
+ * The route is decided when the connection is obtained, from {@link TransactionSynchronizationManager#isCurrentTransactionReadOnly()},
+ * so this data source must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager then only receives a proxy when the transaction begins, and the physical connection is fetched at the first statement,
+ * after the read-only flag has been bound to the thread.
+ * <p>
+ * Reads go to the primary as well when there is no replica, when {@link DataSourceRouting} forces the primary, or while the replica
+ * is considered down: a failure to obtain a replica connection falls back to the primary and skips the replica for retryAfterMs.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final long retryAfterMs;
+
+    private volatile long replicaDownUntil;
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, long retryAfterMs) {
+        this.primary = primary;
+        this.replica = replica;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (routeToReplica()) {
+            try {
+                Connection connection = connect(replica, username, password);
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException | RuntimeException e) {
+                replicaDownUntil = System.currentTimeMillis() + retryAfterMs;
+                fallbacks.increment();
+                logger.warn("Replica unavailable, routing reads to the primary for {} ms: {}", retryAfterMs, e.getMessage());
+            }
+        }
+
+        Connection connection = connect(primary, username, password);
+        primaryConnections.increment();
+        return connection;
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> values = new TreeMap<>();
+        values.put("primaryConnections", primaryConnections.sum());
+        values.put("replicaConnections", replicaConnections.sum());
+        values.put("fallbacks", fallbacks.sum());
+        values.put("replicaDown", isReplicaDown() ? 1L : 0L);
+        return values;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (replica instanceof Closeable closeable) closeable.close();
+        if (primary instanceof Closeable closeable) closeable.close();
+    }
+
+    private boolean routeToReplica() {
+        if (replica == null || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return false;
+        if (DataSourceRouting.isPrimaryForced()) return false;
+
+        if (isReplicaDown()) {
+            fallbacks.increment();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isReplicaDown() {
+        return System.currentTimeMillis() < replicaDownUntil;
+    }
+
+    private static Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.mvc.config.routing;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Forces primary routing for requests that carry {@value #HEADER}: true, e.g. a client reading back what it has just written.
+ * <p>
+ * The primary is forced on the container thread for as long as it handles the request. Async requests, such as the streamed exports,
+ * release the container thread as soon as concurrent handling starts, and force the primary on the thread that runs their body instead;
+ * the ASYNC dispatch that completes them is not handled again.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String HEADER = "X-Read-Your-Writes";
+
+    private static final String FORCED_ATTRIBUTE = ReadYourWritesInterceptor.class.getName() + ".FORCED";
+
+    private static final CallableProcessingInterceptor ASYNC_PRIMARY = new CallableProcessingInterceptor() {
+        @Override
+        public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+            DataSourceRouting.forcePrimary();
+        }
+
+        @Override
+        public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+            DataSourceRouting.release();
+        }
+    };
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) return true;
+
+        if (Boolean.parseBoolean(request.getHeader(HEADER))) {
+            DataSourceRouting.forcePrimary();
+            request.setAttribute(FORCED_ATTRIBUTE, Boolean.TRUE);
+            WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(FORCED_ATTRIBUTE, ASYNC_PRIMARY);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private static void release(HttpServletRequest request) {
+        if (request.getAttribute(FORCED_ATTRIBUTE) != null) {
+            request.removeAttribute(FORCED_ATTRIBUTE);
+            DataSourceRouting.release();
+        }
+    }
+}
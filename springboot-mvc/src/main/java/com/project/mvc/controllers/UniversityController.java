@@ -1,13 +1,36 @@
 package com.project.mvc.controllers;
 
+import com.project.mvc.config.routing.ReadWriteRoutingDataSource;
 import com.project.mvc.data.entities.Course;
-import com.project.mvc.data.entities.Student;
+import com.project.mvc.models.university.ActionFailureRate;
+import com.project.mvc.models.university.CatalogCourse;
+import com.project.mvc.models.university.CourseSummary;
+import com.project.mvc.models.university.CursorPage;
+import com.project.mvc.models.university.EnrollmentPair;
+import com.project.mvc.models.university.EnrollmentResult;
+import com.project.mvc.models.university.EnrollmentSummary;
+import com.project.mvc.models.university.LogFilter;
+import com.project.mvc.models.university.LogSummary;
+import com.project.mvc.models.university.StudentSummary;
+import com.project.mvc.services.CourseVersionConflictException;
 import com.project.mvc.services.UniversityService;
+import com.project.mvc.services.audit.ActionFailureRates;
+import com.project.mvc.services.cache.CourseCatalogCache;
+import com.project.mvc.services.cache.SecondLevelCacheStatistics;
+import com.project.mvc.services.retry.TransactionRetryExecutor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -15,23 +38,48 @@ import java.util.UUID;
 public class UniversityController {
 
     private final UniversityService universityService;
+    private final TransactionRetryExecutor retryExecutor;
+    private final CourseCatalogCache courseCatalogCache;
+    private final SecondLevelCacheStatistics secondLevelCacheStatistics;
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final ActionFailureRates actionFailureRates;
 
     @Autowired
-    public UniversityController(UniversityService universityService) {
+    public UniversityController(UniversityService universityService, TransactionRetryExecutor retryExecutor,
+                                CourseCatalogCache courseCatalogCache, SecondLevelCacheStatistics secondLevelCacheStatistics,
+                                ReadWriteRoutingDataSource routingDataSource, ActionFailureRates actionFailureRates) {
         this.universityService = universityService;
+        this.retryExecutor = retryExecutor;
+        this.courseCatalogCache = courseCatalogCache;
+        this.secondLevelCacheStatistics = secondLevelCacheStatistics;
+        this.routingDataSource = routingDataSource;
+        this.actionFailureRates = actionFailureRates;
     }
 
     // Enroll a student in a course
     @PostMapping("/enroll")
     public ResponseEntity<String> enrollStudentInCourse(@RequestParam UUID studentId, @RequestParam UUID courseId) {
         try {
-            universityService.enrollStudentInCourse(studentId, courseId);
+            retryExecutor.run("enrollStudentInCourse",
+                    () -> universityService.enrollStudentInCourse(studentId, courseId));
             return ResponseEntity.ok("Student enrolled successfully");
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Failed to enroll student: " + e.getMessage());
         }
     }
 
+    // Enroll many (studentId, courseId) pairs at once and report the outcome of each pair
+    @PostMapping("/enroll/bulk")
+    public ResponseEntity<?> enrollStudentsInCourses(@RequestBody List<EnrollmentPair> pairs) {
+        try {
+            List<EnrollmentResult> results = retryExecutor.execute("enrollStudentsInCourses",
+                    () -> universityService.enrollStudentsInCourses(pairs));
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Failed to enroll students: " + e.getMessage());
+        }
+    }
+
     // Remove a student's enrollment from a course
     @DeleteMapping("/enrollments")
     public ResponseEntity<String> removeStudentEnrollmentFromCourse(@RequestParam UUID studentId, @RequestParam UUID courseId) {
@@ -45,15 +93,92 @@ public class UniversityController {
 
     // Retrieve all students for a specific course
     @GetMapping("/students")
-    public ResponseEntity<List<Student>> getStudentsForCourse(@RequestParam UUID courseId) {
+    public ResponseEntity<List<StudentSummary>> getStudentsForCourse(@RequestParam UUID courseId) {
         try {
-            List<Student> students = universityService.getStudentsForCourse(courseId);
+            List<StudentSummary> students = universityService.getStudentsForCourse(courseId);
             return ResponseEntity.ok(students);
         } catch (Exception e) {
             return ResponseEntity.status(500).body(null);
         }
     }
 
+    // Page through all students ordered by name; pass the returned nextCursor to get the following page
+    @GetMapping("/students/page")
+    public ResponseEntity<CursorPage<StudentSummary>> getStudentsPage(@RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "50") int size,
+                                                                      @RequestParam(defaultValue = "false") boolean withTotal) {
+        try {
+            return ResponseEntity.ok(universityService.getStudentsPage(cursor, size, withTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Page through all courses ordered by name
+    @GetMapping("/courses/page")
+    public ResponseEntity<CursorPage<CourseSummary>> getCoursesPage(@RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "50") int size,
+                                                                    @RequestParam(defaultValue = "false") boolean withTotal) {
+        try {
+            return ResponseEntity.ok(universityService.getCoursesPage(cursor, size, withTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Page through the enrollments of a course
+    @GetMapping("/enrollments/page")
+    public ResponseEntity<CursorPage<EnrollmentSummary>> getEnrollmentsForCoursePage(@RequestParam UUID courseId,
+                                                                                     @RequestParam(required = false) String cursor,
+                                                                                     @RequestParam(defaultValue = "50") int size,
+                                                                                     @RequestParam(defaultValue = "false") boolean withTotal) {
+        try {
+            return ResponseEntity.ok(universityService.getEnrollmentsForCoursePage(courseId, cursor, size, withTotal));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Stream the students of a course as newline-delimited JSON
+    @GetMapping(value = "/export/students", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportStudentsForCourse(@RequestParam UUID courseId) {
+        return ndjson(out -> universityService.exportStudentsForCourse(courseId, out));
+    }
+
+    // Stream the students of a major as newline-delimited JSON
+    @GetMapping(value = "/export/students/by-major", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportStudentsByMajor(@RequestParam String major) {
+        return ndjson(out -> universityService.exportStudentsByMajor(major, out));
+    }
+
+    // Stream all courses, ordered by the given property, as newline-delimited JSON
+    @GetMapping(value = "/export/courses", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCourses(@RequestParam(defaultValue = "name") String sortBy) {
+        return ndjson(out -> universityService.exportCourses(Sort.by(sortBy), out));
+    }
+
+    // Stream all enrollments as newline-delimited JSON
+    @GetMapping(value = "/export/enrollments", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEnrollments() {
+        return ndjson(universityService::exportEnrollments);
+    }
+
+    // Stream the audit log rows matching the filter, newest first, as newline-delimited JSON
+    @GetMapping(value = "/export/logs", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLogs(@RequestParam(required = false) String action,
+                                                            @RequestParam(required = false) LogFilter.Status status,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LogFilter filter = new LogFilter(action, status, from, to);
+        return ndjson(out -> universityService.exportLogs(filter, out));
+    }
+
     // Add a new course
     @PostMapping("/courses")
     public ResponseEntity<Course> addNewCourse(@RequestParam String title) {
@@ -65,21 +190,149 @@ public class UniversityController {
         }
     }
 
-    // Update course and enrollments
+    // Retrieve a course from the catalog
+    @GetMapping("/courses/{courseId}")
+    public ResponseEntity<CatalogCourse> getCourse(@PathVariable UUID courseId) {
+        try {
+            return universityService.getCourse(courseId)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Retrieve the courses of an instructor
+    @GetMapping("/courses/by-instructor")
+    public ResponseEntity<List<CatalogCourse>> getCoursesByInstructor(@RequestParam String instructor) {
+        try {
+            return ResponseEntity.ok(universityService.getCoursesByInstructor(instructor));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Retrieve the online or in-person courses
+    @GetMapping("/courses/by-online")
+    public ResponseEntity<List<CatalogCourse>> getCoursesByOnline(@RequestParam boolean online) {
+        try {
+            return ResponseEntity.ok(universityService.getCoursesByOnline(online));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Update course and enrollments; answers 409 with the current version (body and ETag) when the course was changed concurrently
+    // or no longer has expectedVersion
     @PutMapping("/courses")
-    public ResponseEntity<String> updateCourseAndEnrollments(@RequestParam UUID courseId, @RequestParam String newTitle) {
+    public ResponseEntity<String> updateCourseAndEnrollments(@RequestParam UUID courseId, @RequestParam String newTitle,
+                                                             @RequestParam(required = false) Long expectedVersion) {
         try {
-            universityService.updateCourseAndEnrollments(courseId, newTitle);
+            retryExecutor.run("updateCourseAndEnrollments",
+                    () -> universityService.updateCourseAndEnrollments(courseId, newTitle, expectedVersion));
             return ResponseEntity.ok("Course and enrollments updated successfully");
+        } catch (CourseVersionConflictException e) {
+            return versionConflict(e.getCurrentVersion());
+        } catch (OptimisticLockingFailureException e) {
+            // Another transaction committed a change to the course first
+            return universityService.getCourse(courseId)
+                    .map(course -> versionConflict(course.getVersion()))
+                    .orElseGet(() -> ResponseEntity.status(409).body("Course was modified concurrently"));
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Failed to update course and enrollments: " + e.getMessage());
         }
     }
 
+    // Record the grades of a course, given as a map from student id to grade; send "X-Bulk-Write: true" for large courses
+    @PutMapping("/courses/{courseId}/grades")
+    public ResponseEntity<String> recordGrades(@PathVariable UUID courseId, @RequestBody Map<UUID, Integer> gradesByStudent) {
+        try {
+            int graded = retryExecutor.execute("recordGrades", () -> universityService.recordGrades(courseId, gradesByStudent));
+            return ResponseEntity.ok("Recorded " + graded + " grades");
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Failed to record grades: " + e.getMessage());
+        }
+    }
+
+    // Retry counters of the transactional operations
+    @GetMapping("/retries")
+    public ResponseEntity<Map<String, Map<String, Long>>> getRetryStats() {
+        return ResponseEntity.ok(retryExecutor.getStats());
+    }
+
+    // Hit, miss and eviction counters of the course catalog cache
+    @GetMapping("/cache/courses")
+    public ResponseEntity<Map<String, Map<String, Long>>> getCourseCacheStats() {
+        return ResponseEntity.ok(courseCatalogCache.getStats());
+    }
+
+    // Hit, miss and put counters of the Hibernate second-level and query caches
+    @GetMapping("/cache/regions")
+    public ResponseEntity<Map<String, Map<String, Long>>> getSecondLevelCacheStats() {
+        return ResponseEntity.ok(secondLevelCacheStatistics.getStats());
+    }
+
+    // Connections handed out by the primary and the replica, and replica fallbacks
+    @GetMapping("/datasource/routing")
+    public ResponseEntity<Map<String, Long>> getRoutingStats() {
+        return ResponseEntity.ok(routingDataSource.getStats());
+    }
+
+    // Page through the audit log, newest first, filtered by action, outcome status (SUCCESS, FAILURE, OTHER) and time range [from, to)
+    @GetMapping("/audit/logs")
+    public ResponseEntity<CursorPage<LogSummary>> getLogsPage(@RequestParam(required = false) String action,
+                                                              @RequestParam(required = false) LogFilter.Status status,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(universityService.getLogsPage(new LogFilter(action, status, from, to), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Page through the archived audit log past the retention period, with the same filters and cursors as /audit/logs
+    @GetMapping("/audit/archive/logs")
+    public ResponseEntity<CursorPage<LogSummary>> getArchivedLogsPage(@RequestParam(required = false) String action,
+                                                                      @RequestParam(required = false) LogFilter.Status status,
+                                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "50") int size) {
+        try {
+            return ResponseEntity.ok(universityService.getArchivedLogsPage(new LogFilter(action, status, from, to), cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Failure rate of every audited action over the last windowMinutes minutes
+    @GetMapping("/audit/failure-rates")
+    public ResponseEntity<List<ActionFailureRate>> getFailureRates(@RequestParam(defaultValue = "15") int windowMinutes) {
+        return ResponseEntity.ok(actionFailureRates.over(Duration.ofMinutes(Math.max(1, windowMinutes))));
+    }
+
     // Perform non-transactional operation
     @PostMapping("/non-transactional-operation")
     public ResponseEntity<String> performNonTransactionalOperation() {
         universityService.performNonTransactionalOperation();
         return ResponseEntity.ok("Non-transactional operation performed successfully");
     }
+
+    private static ResponseEntity<String> versionConflict(long currentVersion) {
+        return ResponseEntity.status(409)
+                .eTag(String.valueOf(currentVersion))
+                .body("Course was modified concurrently; current version is " + currentVersion);
+    }
+
+    // The body is written on an async request thread, which opens the export transaction itself
+    private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
 }
@@ -1,25 +1,45 @@
 package com.project.mvc.data.entities;
 
+import com.project.mvc.data.id.TimeOrderedUuid;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.Date;
 import java.util.UUID;
 import java.util.List;
 
 @Entity
-@Table(name = "courses", schema = "university")
+@Table(name = "courses", schema = "university",
+        indexes = {
+                @Index(name = "idx_courses_name_id", columnList = "name, id"),
+                @Index(name = "idx_courses_instructor", columnList = "instructor"),
+                @Index(name = "idx_courses_online", columnList = "online")
+        })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "university.courses")
+// Updates only write the changed columns
+@DynamicUpdate
 public class Course {
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     private String name;
     private String instructor;
     private String schedule;
+    // Seats still open; taken and released atomically by CourseRepository.takeSeat / releaseSeats. Never written by entity updates,
+    // since a Course merged or saved after a seat was taken would otherwise write its stale capacity back
+    @Column(updatable = false)
     private int capacity;
     private boolean online;
     private Date startDate;
+    // Optimistic lock, bumped by entity updates; the seat counter updates in CourseRepository leave it unchanged
+    @Version
+    private long version;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "university.courses.enrollments")
     @OneToMany(mappedBy = "course", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<Enrollment> enrollments;
 
@@ -80,6 +100,10 @@ public class Course {
         this.startDate = startDate;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public List<Enrollment> getEnrollments() {
         return enrollments;
     }
@@ -1,15 +1,22 @@
 package com.project.mvc.data.entities;
 
+import com.project.mvc.data.id.TimeOrderedUuid;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Date;
 import java.util.UUID;
 
 @Entity
-@Table(name = "enrollments", schema = "university")
+@Table(name = "enrollments", schema = "university",
+        uniqueConstraints = @UniqueConstraint(name = "uk_enrollments_student_course", columnNames = {"student_id", "course_id"}),
+        indexes = @Index(name = "idx_enrollments_course_id", columnList = "course_id, id"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "university.enrollments")
 public class Enrollment {
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -22,6 +29,9 @@ public class Enrollment {
 
     private Date enrollmentDate;
     private int grade;
+    // Optimistic lock, also bumped by EnrollmentRepository.adjustGradesForCourse
+    @Version
+    private long version;
 
     // Getters and setters
     public UUID getId() {
@@ -48,6 +58,10 @@ public class Enrollment {
         this.grade = grade;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public Student getStudent() {
         return student;
     }
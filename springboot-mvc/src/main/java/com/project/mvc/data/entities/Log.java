@@ -1,18 +1,46 @@
 package com.project.mvc.data.entities;
 
+import com.project.mvc.data.id.TimeOrderedUuid;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Formula;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+// Stored in daily range partitions on timestamp, maintained by LogPartitionManager.
+// The action is stored as a code from university.log_actions and the outcome as a status plus the text the status does not imply;
+// the university.logs view shows the rows with the original action and outcome strings.
 @Entity
-@Table(name = "logs", schema = "university")
+@Table(name = "log_records", schema = "university",
+        indexes = {
+                @Index(name = "idx_log_records_timestamp_id", columnList = "timestamp, id"),
+                @Index(name = "idx_log_records_action_timestamp_id", columnList = "action_code, timestamp, id"),
+                @Index(name = "idx_log_records_status_timestamp_id", columnList = "status, timestamp, id")
+        })
 public class Log {
+    // Outcome "Success"
+    public static final short STATUS_SUCCESS = 0;
+    // Outcome "Failure: " + message
+    public static final short STATUS_FAILURE = 1;
+    // Any other outcome, kept verbatim in message
+    public static final short STATUS_OTHER = 2;
+
+    private static final String SUCCESS = "Success";
+    private static final String FAILURE_PREFIX = "Failure: ";
+
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
+    // Resolved through the dictionary when loaded; set in memory for new events, whose code is assigned by the AuditSink
+    @Formula("(SELECT a.name FROM university.log_actions a WHERE a.code = action_code)")
     private String action;
-    private String outcome;
+    @Column(name = "action_code", nullable = false)
+    private short actionCode;
+    @Column(nullable = false)
+    private short status;
+    @Column(columnDefinition = "text")
+    private String message;
+    @Column(nullable = false)
     private LocalDateTime timestamp;
 
     // Constructors, getters, and setters
@@ -20,7 +48,8 @@ public class Log {
 
     public Log(String action, String outcome, LocalDateTime timestamp) {
         this.action = action;
-        this.outcome = outcome;
+        this.status = statusOf(outcome);
+        this.message = messageOf(outcome);
         this.timestamp = timestamp;
     }
 
@@ -41,12 +70,54 @@ public class Log {
         this.action = action;
     }
 
+    public short getActionCode() {
+        return actionCode;
+    }
+
+    public void setActionCode(short actionCode) {
+        this.actionCode = actionCode;
+    }
+
+    public short getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
     public String getOutcome() {
-        return outcome;
+        return outcomeOf(status, message);
     }
 
     public void setOutcome(String outcome) {
-        this.outcome = outcome;
+        this.status = statusOf(outcome);
+        this.message = messageOf(outcome);
+    }
+
+    // The outcome string a status and message were encoded from
+    public static String outcomeOf(short status, String message) {
+        return switch (status) {
+            case STATUS_SUCCESS -> SUCCESS;
+            case STATUS_FAILURE -> FAILURE_PREFIX + message;
+            default -> message;
+        };
+    }
+
+    // The status an outcome string is encoded as
+    private static short statusOf(String outcome) {
+        if (SUCCESS.equals(outcome)) return STATUS_SUCCESS;
+        if (outcome != null && outcome.startsWith(FAILURE_PREFIX)) return STATUS_FAILURE;
+        return STATUS_OTHER;
+    }
+
+    // The message kept for an outcome string; null for a plain success
+    private static String messageOf(String outcome) {
+        return switch (statusOf(outcome)) {
+            case STATUS_SUCCESS -> null;
+            case STATUS_FAILURE -> outcome.substring(FAILURE_PREFIX.length());
+            default -> outcome;
+        };
     }
 
     public LocalDateTime getTimestamp() {
@@ -1,7 +1,10 @@
 package com.project.mvc.data.entities;
 
 
+import com.project.mvc.data.id.TimeOrderedUuid;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
@@ -10,10 +13,23 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "students", schema = "university")
+@Table(name = "students", schema = "university",
+        indexes = {
+                @Index(name = "idx_students_name_id", columnList = "name, id"),
+                @Index(name = "idx_students_major", columnList = "major"),
+                @Index(name = "idx_students_year", columnList = "year"),
+                @Index(name = "idx_students_international", columnList = "international")
+        })
+@NamedEntityGraph(name = Student.WITH_ENROLLMENTS, attributeNodes = @NamedAttributeNode("enrollments"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "university.students")
 public class Student {
+
+    // Entity graph that callers opt into when they need the enrollments loaded together with the student
+    public static final String WITH_ENROLLMENTS = "student-with-enrollments";
+
     @Id
-    @GeneratedValue
+    @TimeOrderedUuid
     private UUID id;
 
     @NotBlank
@@ -32,7 +48,7 @@ public class Student {
     @NotNull
     private boolean international;
 
-    @OneToMany(mappedBy = "student", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    @OneToMany(mappedBy = "student", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     private List<Enrollment> enrollments;
 
 
@@ -0,0 +1,60 @@
+package com.project.mvc.data.entities;
+
+import jakarta.persistence.*;
+
+import javax.validation.constraints.NotBlank;
+import java.util.HashSet;
+import java.util.Set;
+
+@Entity
+@Table(name = "users", schema = "university")
+public class UserAccount {
+
+    @Id
+    @Column(length = 100)
+    private String username;
+
+    @NotBlank
+    @Column(nullable = false)
+    private String password;
+
+    @ElementCollection
+    @CollectionTable(name = "user_authorities", schema = "university", joinColumns = @JoinColumn(name = "username"))
+    @Column(name = "authority", length = 50, nullable = false)
+    private Set<String> authorities = new HashSet<>();
+
+    public UserAccount() {
+    }
+
+    public UserAccount(String username, String password, Set<String> authorities) {
+        this.username = username;
+        this.password = password;
+        this.authorities = new HashSet<>(authorities);
+    }
+
+
+    // Getters and setters
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public Set<String> getAuthorities() {
+        return authorities;
+    }
+
+    public void setAuthorities(Set<String> authorities) {
+        this.authorities = authorities;
+    }
+}
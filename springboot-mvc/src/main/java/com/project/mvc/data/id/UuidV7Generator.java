@@ -0,0 +1,17 @@
+package com.project.mvc.data.id;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Hibernate identifier generator behind {@link TimeOrderedUuid}.
+ */
+public class UuidV7Generator implements IdentifierGenerator {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return UuidV7.generate();
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.mvc.models.university;
+
+public class ActionFailureRate {
+
+    private final String action;
+    private final long total;
+    private final long failures;
+
+    public ActionFailureRate(String action, long total, long failures) {
+        this.action = action;
+        this.total = total;
+        this.failures = failures;
+    }
+
+    // Getters
+    public String getAction() { return action; }
+    public long getTotal() { return total; }
+    public long getFailures() { return failures; }
+    public double getFailureRate() { return total == 0 ? 0 : (double) failures / total; }
+}
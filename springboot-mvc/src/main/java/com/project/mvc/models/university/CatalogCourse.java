@@ -0,0 +1,41 @@
+package com.project.mvc.models.university;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Catalog data of a course, i.e. everything except the remaining capacity.
+ * <p>
+ * These fields only change through UniversityService.addNewCourse and updateCourseAndEnrollments, which makes them safe to cache;
+ * the capacity changes with every enrollment and is always read from the database.
+ * The version is the optimistic-lock version of the course, to be sent back as expectedVersion when renaming it.
+ */
+public class CatalogCourse {
+
+    private final UUID id;
+    private final String name;
+    private final String instructor;
+    private final String schedule;
+    private final boolean online;
+    private final Date startDate;
+    private final long version;
+
+    public CatalogCourse(UUID id, String name, String instructor, String schedule, boolean online, Date startDate, long version) {
+        this.id = id;
+        this.name = name;
+        this.instructor = instructor;
+        this.schedule = schedule;
+        this.online = online;
+        this.startDate = startDate;
+        this.version = version;
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+    public String getName() { return name; }
+    public String getInstructor() { return instructor; }
+    public String getSchedule() { return schedule; }
+    public boolean isOnline() { return online; }
+    public Date getStartDate() { return startDate; }
+    public long getVersion() { return version; }
+}
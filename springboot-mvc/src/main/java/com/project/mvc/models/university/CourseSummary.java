@@ -0,0 +1,37 @@
+package com.project.mvc.models.university;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Flat, read-only view of a course, loaded by JPQL constructor expressions without touching the Course entity.
+ */
+public class CourseSummary {
+
+    private final UUID id;
+    private final String name;
+    private final String instructor;
+    private final String schedule;
+    private final int capacity;
+    private final boolean online;
+    private final Date startDate;
+
+    public CourseSummary(UUID id, String name, String instructor, String schedule, int capacity, boolean online, Date startDate) {
+        this.id = id;
+        this.name = name;
+        this.instructor = instructor;
+        this.schedule = schedule;
+        this.capacity = capacity;
+        this.online = online;
+        this.startDate = startDate;
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+    public String getName() { return name; }
+    public String getInstructor() { return instructor; }
+    public String getSchedule() { return schedule; }
+    public int getCapacity() { return capacity; }
+    public boolean isOnline() { return online; }
+    public Date getStartDate() { return startDate; }
+}
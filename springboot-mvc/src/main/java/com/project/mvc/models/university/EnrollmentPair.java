@@ -0,0 +1,23 @@
+package com.project.mvc.models.university;
+
+import java.util.UUID;
+
+public class EnrollmentPair {
+
+    private UUID studentId;
+    private UUID courseId;
+
+    public EnrollmentPair() {}
+
+    public EnrollmentPair(UUID studentId, UUID courseId) {
+        this.studentId = studentId;
+        this.courseId = courseId;
+    }
+
+    // Getters and setters
+    public UUID getStudentId() { return studentId; }
+    public void setStudentId(UUID studentId) { this.studentId = studentId; }
+
+    public UUID getCourseId() { return courseId; }
+    public void setCourseId(UUID courseId) { this.courseId = courseId; }
+}
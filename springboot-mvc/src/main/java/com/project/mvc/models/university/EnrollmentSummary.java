@@ -0,0 +1,31 @@
+package com.project.mvc.models.university;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Flat, read-only view of an enrollment that carries the student and course ids instead of the associations.
+ */
+public class EnrollmentSummary {
+
+    private final UUID id;
+    private final UUID studentId;
+    private final UUID courseId;
+    private final Date enrollmentDate;
+    private final int grade;
+
+    public EnrollmentSummary(UUID id, UUID studentId, UUID courseId, Date enrollmentDate, int grade) {
+        this.id = id;
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.enrollmentDate = enrollmentDate;
+        this.grade = grade;
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+    public UUID getStudentId() { return studentId; }
+    public UUID getCourseId() { return courseId; }
+    public Date getEnrollmentDate() { return enrollmentDate; }
+    public int getGrade() { return grade; }
+}
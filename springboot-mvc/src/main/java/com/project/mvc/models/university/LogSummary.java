@@ -0,0 +1,30 @@
+package com.project.mvc.models.university;
+
+import com.project.mvc.data.entities.Log;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Flat, read-only view of an audit log row with its action name and outcome decoded.
+ */
+public class LogSummary {
+
+    private final UUID id;
+    private final String action;
+    private final String outcome;
+    private final LocalDateTime timestamp;
+
+    public LogSummary(UUID id, String action, short status, String message, LocalDateTime timestamp) {
+        this.id = id;
+        this.action = action;
+        this.outcome = Log.outcomeOf(status, message);
+        this.timestamp = timestamp;
+    }
+
+    // Getters
+    public UUID getId() { return id; }
+    public String getAction() { return action; }
+    public String getOutcome() { return outcome; }
+    public LocalDateTime getTimestamp() { return timestamp; }
+}
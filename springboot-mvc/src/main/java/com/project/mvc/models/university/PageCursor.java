@@ -0,0 +1,56 @@
+package com.project.mvc.models.university;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position of the last row of a keyset page: the sort key (may be null when rows are ordered by id only) and the id
+ * that breaks ties. Clients only see it as an opaque, URL-safe continuation token.
+ */
+public class PageCursor {
+
+    private static final char SEPARATOR = ':';
+
+    private final String key;
+    private final UUID id;
+
+    public PageCursor(String key, UUID id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public static PageCursor of(UUID id) {
+        return new PageCursor(null, id);
+    }
+
+    /**
+     * Decode a continuation token; a null or blank token means "start from the first page" and yields null.
+     *
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) return null;
+
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) return new PageCursor(null, UUID.fromString(value));
+
+            return new PageCursor(value.substring(separator + 1), UUID.fromString(value.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    // The id comes first: it never contains the separator, so the key may contain anything.
+    // A null key is written without the separator, so it stays distinct from an empty key.
+    public String encode() {
+        String value = key == null ? id.toString() : id.toString() + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Getters
+    public String getKey() { return key; }
+    public UUID getId() { return id; }
+}
@@ -0,0 +1,34 @@
+package com.project.mvc.repositories;
+
+import java.util.UUID;
+
+/**
+ * Custom CourseRepository operations that bypass the persistence context.
+ * <p>
+ * Seats are taken and released with plain JDBC updates of the capacity column. Hibernate does not see them, so an enrollment
+ * neither invalidates the cached Course queries nor the whole course cache region; only the entry of the course itself is evicted.
+ * All methods must run inside the caller's transaction, so a seat is given back if it rolls back.
+ */
+public interface CourseRepositoryCustom {
+
+    /**
+     * Take one seat only if one remains.
+     *
+     * @return 1, or 0 when the course is full or does not exist
+     */
+    int takeSeat(UUID id);
+
+    /**
+     * Take the given number of seats only if that many remain.
+     *
+     * @return 1, or 0 when fewer seats remain or the course does not exist
+     */
+    int takeSeats(UUID id, int seats);
+
+    /**
+     * Give the given number of seats back.
+     *
+     * @return 1, or 0 when the course does not exist
+     */
+    int releaseSeats(UUID id, int seats);
+}
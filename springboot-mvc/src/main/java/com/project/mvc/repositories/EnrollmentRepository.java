@@ -1,19 +1,28 @@
 package com.project.mvc.repositories;
 
 import com.project.mvc.data.entities.Enrollment;
+import com.project.mvc.models.university.EnrollmentSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID>, EnrollmentRepositoryCustom {
 
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
     List<Enrollment> findByStudentId(UUID studentId);
@@ -27,6 +36,52 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, UUID> {
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
     Page<Enrollment> findByCourseId(UUID courseId, Pageable pageable);
 
+    // Keyset pagination of a course's enrollments over id, backed by idx_enrollments_course_id (course_id, id);
+    // the Pageable only bounds the page size, and since the result is a List no count query is issued
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.project.mvc.models.university.EnrollmentSummary(e.id, e.student.id, e.course.id, e.enrollmentDate, e.grade) FROM Enrollment e " +
+            "WHERE e.course.id = :courseId ORDER BY e.id")
+    List<EnrollmentSummary> findFirstSummariesByCourseId(@Param("courseId") UUID courseId, Pageable limit);
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.project.mvc.models.university.EnrollmentSummary(e.id, e.student.id, e.course.id, e.enrollmentDate, e.grade) FROM Enrollment e " +
+            "WHERE e.course.id = :courseId AND e.id > :id ORDER BY e.id")
+    List<EnrollmentSummary> findSummariesByCourseIdAfter(@Param("courseId") UUID courseId, @Param("id") UUID id, Pageable limit);
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    long countByCourseId(UUID courseId);
+
+    // Forward-only read of a course's enrollments for chunked per-row updates; the caller must close the stream
+    @Transactional(propagation = Propagation.MANDATORY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e FROM Enrollment e WHERE e.course.id = :courseId")
+    Stream<Enrollment> streamByCourseId(@Param("courseId") UUID courseId);
 
+    // Forward-only cursor over every enrollment for NDJSON export; projections keep the persistence context empty
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.project.mvc.models.university.EnrollmentSummary(e.id, e.student.id, e.course.id, e.enrollmentDate, e.grade) " +
+            "FROM Enrollment e")
+    Stream<EnrollmentSummary> streamAllSummaries();
+
+    // Set-based grade update that bumps the version of every row; flushes pending changes first and clears the persistence context afterwards
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("UPDATE Enrollment e SET e.grade = e.grade + :delta, e.version = e.version + 1 WHERE e.course.id = :courseId")
+    int adjustGradesForCourse(@Param("courseId") UUID courseId, @Param("delta") int delta);
+
+    // Existing (studentId, courseId) pairs among the given students and courses, without loading the entities
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT e.student.id, e.course.id FROM Enrollment e WHERE e.student.id IN :studentIds AND e.course.id IN :courseIds")
+    List<Object[]> findStudentCoursePairs(@Param("studentIds") Collection<UUID> studentIds, @Param("courseIds") Collection<UUID> courseIds);
+
+    // Uses the unique (student_id, course_id) index declared on Enrollment
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
     boolean existsByStudentIdAndCourseId(UUID studentId, UUID courseId);
+
+    // Single-statement delete on the unique (student_id, course_id) index, without loading any entity
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("DELETE FROM Enrollment e WHERE e.student.id = :studentId AND e.course.id = :courseId")
+    int deleteByStudentIdAndCourseId(@Param("studentId") UUID studentId, @Param("courseId") UUID courseId);
 }
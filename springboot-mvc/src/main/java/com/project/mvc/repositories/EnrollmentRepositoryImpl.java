@@ -0,0 +1,94 @@
+package com.project.mvc.repositories;
+
+import com.project.mvc.data.entities.Course;
+import com.project.mvc.data.id.UuidV7;
+import com.project.mvc.models.university.EnrollmentPair;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+public class EnrollmentRepositoryImpl implements EnrollmentRepositoryCustom {
+
+    static final int BATCH_SIZE = 500;
+
+    // One statement per chunk; pairs already enrolled, also by a concurrent transaction, are skipped instead of failing the import
+    private static final String INSERT_SQL =
+            "INSERT INTO university.enrollments (id, student_id, course_id, enrollment_date, grade, version) " +
+            "SELECT p.id, p.student_id, p.course_id, ?, 0, 0 FROM unnest(?, ?, ?) AS p(id, student_id, course_id) " +
+            "ON CONFLICT (student_id, course_id) DO NOTHING RETURNING student_id, course_id";
+
+    // Second-level cache role of Course.enrollments
+    private static final String COURSE_ENROLLMENTS_ROLE = Course.class.getName() + ".enrollments";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public EnrollmentRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<EnrollmentPair> insertAll(List<EnrollmentPair> pairs, Date enrollmentDate) {
+        Timestamp timestamp = enrollmentDate == null ? null : new Timestamp(enrollmentDate.getTime());
+
+        Set<List<UUID>> inserted = new HashSet<>();
+        for (int from = 0; from < pairs.size(); from += BATCH_SIZE) {
+            List<EnrollmentPair> chunk = pairs.subList(from, Math.min(from + BATCH_SIZE, pairs.size()));
+            UUID[] ids = new UUID[chunk.size()];
+            UUID[] studentIds = new UUID[chunk.size()];
+            UUID[] courseIds = new UUID[chunk.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                ids[i] = UuidV7.generate();
+                studentIds[i] = chunk.get(i).getStudentId();
+                courseIds[i] = chunk.get(i).getCourseId();
+            }
+
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_SQL);
+                ps.setTimestamp(1, timestamp);
+                ps.setArray(2, con.createArrayOf("uuid", ids));
+                ps.setArray(3, con.createArrayOf("uuid", studentIds));
+                ps.setArray(4, con.createArrayOf("uuid", courseIds));
+                return ps;
+            }, (RowCallbackHandler) rs -> inserted.add(List.of(rs.getObject(1, UUID.class), rs.getObject(2, UUID.class))));
+        }
+
+        evictCourseEnrollments(pairs.stream().map(EnrollmentPair::getCourseId).collect(Collectors.toSet()));
+        return pairs.stream()
+                .filter(pair -> !inserted.contains(List.of(pair.getStudentId(), pair.getCourseId())))
+                .toList();
+    }
+
+    // Hibernate does not see JDBC inserts, so the cached Course.enrollments collections are dropped now and again after commit
+    private void evictCourseEnrollments(Set<UUID> courseIds) {
+        org.hibernate.Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        courseIds.forEach(courseId -> cache.evictCollectionData(COURSE_ENROLLMENTS_ROLE, courseId));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    courseIds.forEach(courseId -> cache.evictCollectionData(COURSE_ENROLLMENTS_ROLE, courseId));
+                }
+            });
+        }
+    }
+}
@@ -5,4 +5,4 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.UUID;
 
-public interface LogRepository extends JpaRepository<Log, UUID> {}
+public interface LogRepository extends JpaRepository<Log, UUID>, LogRepositoryCustom {}
@@ -1,16 +1,26 @@
 package com.project.mvc.repositories;
 
 import com.project.mvc.data.entities.Student;
+import com.project.mvc.models.university.StudentSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface StudentRepository extends JpaRepository<Student, UUID> {
 
@@ -23,6 +33,59 @@ public interface StudentRepository extends JpaRepository<Student, UUID> {
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
     List<Student> findByInternational(boolean international);
 
+    // Opt-in loading of the lazy enrollments collection in the same query
+    @EntityGraph(Student.WITH_ENROLLMENTS)
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    Optional<Student> findWithEnrollmentsById(UUID id);
+
+    @EntityGraph(Student.WITH_ENROLLMENTS)
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    List<Student> findWithEnrollmentsByMajor(String major);
+
+    // Roster of a course as flat projections, in one round-trip and without loading Student or Enrollment entities
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.project.mvc.models.university.StudentSummary(s.id, s.name, s.email, s.major, s.year, s.international) " +
+            "FROM Enrollment e JOIN e.student s WHERE e.course.id = :courseId")
+    List<StudentSummary> findRosterByCourseId(@Param("courseId") UUID courseId);
+
+    // Forward-only cursor variants for NDJSON export; must be consumed and closed inside the caller's read-only transaction
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.project.mvc.models.university.StudentSummary(s.id, s.name, s.email, s.major, s.year, s.international) " +
+            "FROM Enrollment e JOIN e.student s WHERE e.course.id = :courseId")
+    Stream<StudentSummary> streamRosterByCourseId(@Param("courseId") UUID courseId);
+
+    @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.project.mvc.models.university.StudentSummary(s.id, s.name, s.email, s.major, s.year, s.international) " +
+            "FROM Student s WHERE s.major = :major")
+    Stream<StudentSummary> streamByMajor(@Param("major") String major);
+
+    // Ids among the given ones that belong to an existing student, without loading the entities
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT s.id FROM Student s WHERE s.id IN :ids")
+    List<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    // Keyset pagination over (name, id) with nulls last, backed by idx_students_name_id; the Pageable only bounds the page size,
+    // and since the result is a List no count query is issued
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.project.mvc.models.university.StudentSummary(s.id, s.name, s.email, s.major, s.year, s.international) FROM Student s ORDER BY s.name NULLS LAST, s.id")
+    List<StudentSummary> findFirstSummaries(Pageable limit);
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.project.mvc.models.university.StudentSummary(s.id, s.name, s.email, s.major, s.year, s.international) FROM Student s " +
+            "WHERE s.name >= :name AND (s.name > :name OR s.id > :id) ORDER BY s.name, s.id")
+    List<StudentSummary> findSummariesAfter(@Param("name") String name, @Param("id") UUID id, Pageable limit);
+
+    // Rows without a name sort last; once the named rows run out, the pages continue with them in id order
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.project.mvc.models.university.StudentSummary(s.id, s.name, s.email, s.major, s.year, s.international) FROM Student s WHERE s.name IS NULL ORDER BY s.id")
+    List<StudentSummary> findFirstUnnamedSummaries(Pageable limit);
+
+    @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
+    @Query("SELECT new com.project.mvc.models.university.StudentSummary(s.id, s.name, s.email, s.major, s.year, s.international) FROM Student s WHERE s.name IS NULL AND s.id > :id ORDER BY s.id")
+    List<StudentSummary> findUnnamedSummariesAfter(@Param("id") UUID id, Pageable limit);
+
     @Transactional(propagation = Propagation.REQUIRED, isolation = Isolation.READ_COMMITTED, readOnly = true)
     Page<Student> findAll(Pageable pageable);
 
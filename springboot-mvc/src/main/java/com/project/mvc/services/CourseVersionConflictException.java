@@ -0,0 +1,25 @@
+package com.project.mvc.services;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.UUID;
+
+/**
+ * Thrown when a course update was based on a version of the course that is no longer current.
+ */
+public class CourseVersionConflictException extends OptimisticLockingFailureException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final UUID courseId;
+    private final long currentVersion;
+
+    public CourseVersionConflictException(UUID courseId, long currentVersion) {
+        super("Course " + courseId + " was modified concurrently; current version is " + currentVersion);
+        this.courseId = courseId;
+        this.currentVersion = currentVersion;
+    }
+
+    public UUID getCourseId() { return courseId; }
+    public long getCurrentVersion() { return currentVersion; }
+}
@@ -0,0 +1,244 @@
+package com.project.mvc.services.archive;
+
+import com.project.mvc.models.university.LogFilter;
+import com.project.mvc.models.university.LogSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Cold archive of audit log rows in compressed segment files on local disk.
+ * <p>
+ * Rows leave university.log_records only through the retention of LogPartitionManager, which first hands them to
+ * {@link #archive(String, String, LocalDateTime)}: they are streamed out of the database in (timestamp, id) order and written as
+ * {@code <name>.<part>.logseg} files of at most {@code maxSegmentRows} rows. The database keeps only the retention window,
+ * however old the history grows, and the archive keeps the rest for compliance queries.
+ * <p>
+ * {@link #find(LogFilter, LocalDateTime, UUID, int)} answers historical queries from the memory-mapped segments. Files and blocks
+ * outside the time range are skipped by their index, and the newest matching rows of all segments are merged in the same
+ * (timestamp, id) descending order that the live log query uses, so the two can share cursors.
+ */
+public class LogArchive {
+
+    private static final String SUFFIX = ".logseg";
+    private static final String SELECT_SQL = "SELECT r.id, a.name, r.status, r.message, r.timestamp FROM university.%s r " +
+            "JOIN university.log_actions a ON a.code = r.action_code%s ORDER BY r.timestamp, r.id";
+    private static final int FETCH_SIZE = 1000;
+
+    // Newest first; ids compare as unsigned bytes, like PostgreSQL orders uuid
+    private static final Comparator<ArchivedRow> NEWEST_FIRST = Comparator
+            .comparingLong((ArchivedRow row) -> row.micros)
+            .thenComparing(row -> row.id, LogArchive::compareIds)
+            .reversed();
+
+    private final Path directory;
+    private final JdbcTemplate jdbcTemplate;
+    private final int blockRows;
+    private final long maxSegmentRows;
+
+    private final Map<Path, LogSegmentReader> readers = new ConcurrentHashMap<>();
+
+    public LogArchive(Path directory, JdbcTemplate jdbcTemplate, int blockRows, long maxSegmentRows) {
+        if (maxSegmentRows < blockRows) throw new IllegalArgumentException("Archive segments must hold at least one block");
+
+        this.directory = directory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockRows = blockRows;
+        this.maxSegmentRows = maxSegmentRows;
+    }
+
+    /**
+     * Archive the rows of the table {@code university.<table>} with a timestamp before {@code before}, or all of its rows when
+     * {@code before} is null, into segment files named after {@code name}, and return how many rows were archived.
+     * <p>
+     * Must run inside the transaction that then removes the rows: the rows are read through a cursor of that transaction,
+     * and the files are deleted again if it rolls back, so a row is never both kept and archived.
+     */
+    public long archive(String name, String table, LocalDateTime before) {
+        String sql = String.format(SELECT_SQL, table, before == null ? "" : " WHERE r.timestamp < ?");
+        List<Path> written = new ArrayList<>();
+        SegmentSink sink = new SegmentSink(name, written);
+
+        try {
+            Files.createDirectories(directory);
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql);
+                ps.setFetchSize(FETCH_SIZE);
+                if (before != null) ps.setTimestamp(1, Timestamp.valueOf(before));
+                return ps;
+            }, rs -> {
+                try {
+                    sink.append(rs.getObject(1, UUID.class), rs.getString(2), rs.getShort(3), rs.getString(4),
+                            rs.getTimestamp(5).toLocalDateTime());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            sink.close();
+        } catch (IOException | RuntimeException e) {
+            sink.abort();
+            delete(written);
+            throw e instanceof IOException io ? new UncheckedIOException("Could not archive " + table, io) : (RuntimeException) e;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) delete(written);
+                }
+            });
+        }
+        return sink.rows;
+    }
+
+    /**
+     * The newest archived rows matching the filter that come after the given row in (timestamp, id) descending order,
+     * or from the start when {@code beforeTimestamp} is null.
+     */
+    public List<LogSummary> find(LogFilter filter, LocalDateTime beforeTimestamp, UUID beforeId, int limit) {
+        long from = filter.getFrom() == null ? Long.MIN_VALUE : LogSegmentReader.toMicros(filter.getFrom());
+        long to = filter.getTo() == null ? Long.MAX_VALUE : LogSegmentReader.toMicros(filter.getTo()) - 1;
+        long before = beforeTimestamp == null ? Long.MAX_VALUE : LogSegmentReader.toMicros(beforeTimestamp);
+        long upper = Math.min(to, before);
+        Short status = filter.getStatus() == null ? null : filter.getStatus().getCode();
+
+        List<ArchivedRow> rows = new ArrayList<>();
+        try {
+            for (Path segment : segments()) {
+                LogSegmentReader reader = reader(segment);
+                if (!reader.overlaps(from, upper)) continue;
+
+                int[] matched = {0};
+                reader.scan(from, upper, (id, action, rowStatus, message, micros) -> {
+                    if (micros == before && compareIds(id, beforeId) >= 0) return true;
+                    if (filter.getAction() != null && !filter.getAction().equals(action)) return true;
+                    if (status != null && status != rowStatus) return true;
+
+                    rows.add(new ArchivedRow(id, action, rowStatus, message, micros));
+                    return ++matched[0] < limit;
+                });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read the log archive", e);
+        }
+
+        return rows.stream()
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .map(row -> new LogSummary(row.id, row.action, row.status, row.message, LogSegmentReader.fromMicros(row.micros)))
+                .toList();
+    }
+
+    private List<Path> segments() throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+    }
+
+    private LogSegmentReader reader(Path segment) throws IOException {
+        LogSegmentReader reader = readers.get(segment);
+        if (reader == null) {
+            reader = LogSegmentReader.open(segment);
+            readers.put(segment, reader);
+        }
+        return reader;
+    }
+
+    private void delete(List<Path> files) {
+        for (Path file : files) {
+            readers.remove(file);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not delete log archive segment " + file, e);
+            }
+        }
+    }
+
+    static int compareIds(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+
+    // Rolls over to a new part every maxSegmentRows rows; each part is written to a temporary file and renamed when complete
+    private class SegmentSink {
+
+        private final String name;
+        private final List<Path> written;
+        private LogSegmentWriter writer;
+        private Path temporary;
+        private int part;
+        private long rows;
+
+        SegmentSink(String name, List<Path> written) {
+            this.name = name;
+            this.written = written;
+        }
+
+        void append(UUID id, String action, short status, String message, LocalDateTime timestamp) throws IOException {
+            if (writer == null) {
+                temporary = directory.resolve(String.format("%s.%04d%s.tmp", name, ++part, SUFFIX));
+                writer = new LogSegmentWriter(temporary, blockRows);
+            }
+            writer.append(id, action, status, message, timestamp);
+            rows++;
+            if (writer.getRows() + blockRows > maxSegmentRows && rows % blockRows == 0) close();
+        }
+
+        void close() throws IOException {
+            if (writer == null) return;
+            writer.close();
+            writer = null;
+
+            String fileName = temporary.getFileName().toString();
+            Path segment = temporary.resolveSibling(fileName.substring(0, fileName.length() - ".tmp".length()));
+            Files.move(temporary, segment, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            readers.remove(segment);
+            written.add(segment);
+        }
+
+        void abort() {
+            try {
+                if (writer != null) writer.close();
+                if (temporary != null) Files.deleteIfExists(temporary);
+            } catch (IOException ignored) {
+                // The temporary file is left behind and overwritten by the next attempt
+            }
+        }
+    }
+
+    private static final class ArchivedRow {
+
+        private final UUID id;
+        private final String action;
+        private final short status;
+        private final String message;
+        private final long micros;
+
+        ArchivedRow(UUID id, String action, short status, String message, long micros) {
+            this.id = id;
+            this.action = action;
+            this.status = status;
+            this.message = message;
+            this.micros = micros;
+        }
+    }
+}
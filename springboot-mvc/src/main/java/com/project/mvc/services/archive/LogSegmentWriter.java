@@ -0,0 +1,175 @@
+package com.project.mvc.services.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+/**
+ * Writes one archive segment file of audit log rows, which must be appended in ascending (timestamp, id) order.
+ * <p>
+ * Rows are grouped into blocks of {@code blockRows}. Each block stores its rows column by column, timestamps as deltas,
+ * actions as indexes into the action dictionary of the file and the other columns as they are, and is compressed with Deflate.
+ * After the blocks follow the action dictionary and the sparse index, one entry per block with its time range, position and size,
+ * and a fixed-size trailer with the time range of the whole file and the position of the footer. See {@link LogSegmentReader}.
+ */
+class LogSegmentWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x414c5331; // "ALS1"
+    static final int TRAILER_SIZE = 3 * Long.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private final int blockRows;
+
+    private final Map<String, Integer> actionIndexes = new HashMap<>();
+    private final List<String> actions = new ArrayList<>();
+    private final List<long[]> blockIndex = new ArrayList<>();
+
+    private final long[] timestamps;
+    private final UUID[] ids;
+    private final int[] actionColumn;
+    private final byte[] statuses;
+    private final String[] messages;
+    private int buffered;
+
+    private long position;
+    private long rows;
+    private long minMicros = Long.MAX_VALUE;
+    private long maxMicros = Long.MIN_VALUE;
+
+    LogSegmentWriter(Path file, int blockRows) throws IOException {
+        if (blockRows < 1) throw new IllegalArgumentException("Archive blocks must hold at least one row");
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024));
+        this.blockRows = blockRows;
+        this.timestamps = new long[blockRows];
+        this.ids = new UUID[blockRows];
+        this.actionColumn = new int[blockRows];
+        this.statuses = new byte[blockRows];
+        this.messages = new String[blockRows];
+
+        out.writeInt(MAGIC);
+        position = Integer.BYTES;
+    }
+
+    void append(UUID id, String action, short status, String message, LocalDateTime timestamp) throws IOException {
+        timestamps[buffered] = LogSegmentReader.toMicros(timestamp);
+        ids[buffered] = id;
+        actionColumn[buffered] = actionIndexes.computeIfAbsent(action == null ? "" : action, name -> {
+            actions.add(name);
+            return actions.size() - 1;
+        });
+        statuses[buffered] = (byte) status;
+        messages[buffered] = message;
+        if (++buffered == blockRows) writeBlock();
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (buffered > 0) writeBlock();
+
+            long footer = position;
+            out.writeInt(actions.size());
+            for (String action : actions) {
+                byte[] name = action.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+            }
+            out.writeInt(blockIndex.size());
+            for (long[] entry : blockIndex) {
+                out.writeLong(entry[0]); // first timestamp
+                out.writeLong(entry[1]); // last timestamp
+                out.writeLong(entry[2]); // position
+                out.writeInt((int) entry[3]); // compressed size
+                out.writeInt((int) entry[4]); // uncompressed size
+            }
+
+            out.writeLong(rows == 0 ? 0 : minMicros);
+            out.writeLong(rows == 0 ? 0 : maxMicros);
+            out.writeLong(footer);
+            out.writeInt(MAGIC);
+            out.flush();
+            channel.force(true);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream(buffered * 48);
+        DataOutputStream block = new DataOutputStream(raw);
+        block.writeInt(buffered);
+        block.writeLong(timestamps[0]);
+        for (int i = 1; i < buffered; i++) writeVarLong(block, timestamps[i] - timestamps[i - 1]);
+        for (int i = 0; i < buffered; i++) {
+            block.writeLong(ids[i].getMostSignificantBits());
+            block.writeLong(ids[i].getLeastSignificantBits());
+        }
+        for (int i = 0; i < buffered; i++) writeVarLong(block, actionColumn[i]);
+        block.write(statuses, 0, buffered);
+        for (int i = 0; i < buffered; i++) {
+            if (messages[i] == null) {
+                writeVarLong(block, 0);
+            } else {
+                byte[] bytes = messages[i].getBytes(StandardCharsets.UTF_8);
+                writeVarLong(block, bytes.length + 1L);
+                block.write(bytes);
+            }
+        }
+        byte[] uncompressed = raw.toByteArray();
+        byte[] compressed = deflate(uncompressed);
+
+        blockIndex.add(new long[]{timestamps[0], timestamps[buffered - 1], position, compressed.length, uncompressed.length});
+        out.write(compressed);
+        position += compressed.length;
+
+        minMicros = Math.min(minMicros, timestamps[0]);
+        maxMicros = Math.max(maxMicros, timestamps[buffered - 1]);
+        rows += buffered;
+        buffered = 0;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, input.length / 4));
+            byte[] buffer = new byte[16 * 1024];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Unsigned LEB128; deltas of ascending timestamps and dictionary indexes are never negative
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
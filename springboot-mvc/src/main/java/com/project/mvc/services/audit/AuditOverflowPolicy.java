@@ -0,0 +1,13 @@
+package com.project.mvc.services.audit;
+
+/**
+ * What {@link BatchingAuditSink} does with a new event when its queue is full.
+ */
+public enum AuditOverflowPolicy {
+    // Wait for the worker to free a slot (bounded by the configured offer timeout), then write on the caller thread
+    BLOCK,
+    // Discard the event and count it as dropped
+    DROP,
+    // Write the event synchronously on the caller thread
+    CALLER_RUNS
+}
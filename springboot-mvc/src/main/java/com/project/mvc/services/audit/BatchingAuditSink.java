@@ -0,0 +1,184 @@
+package com.project.mvc.services.audit;
+
+import com.project.mvc.data.entities.Log;
+import com.project.mvc.data.id.UuidV7;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AuditSink that enqueues events into a bounded in-memory queue and writes them to university.log_records
+ * in JDBC batches from a single background worker.
+ * <p>
+ * The worker flushes as soon as {@code batchSize} events are queued, or after {@code flushInterval} when fewer are waiting.
+ * When the queue is full the configured {@link AuditOverflowPolicy} applies.
+ * On shutdown the worker is stopped and every event still in the queue is written before the bean is destroyed.
+ * <p>
+ * Events are no longer part of any request transaction: the request pays for an in-memory offer instead of a second
+ * connection and commit, and a crash of the JVM loses whatever is still queued.
+ * Every batch is written in a transaction of its own (REQUIRES_NEW), also when an overflow policy writes it on the caller's thread,
+ * so an event never rolls back with the caller's transaction and is never routed to the replica of a read-only caller.
+ */
+public class BatchingAuditSink implements AuditSink, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingAuditSink.class);
+
+    static final String INSERT_SQL = "INSERT INTO university.log_records (id, action_code, status, message, timestamp) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LogActionDictionary actionDictionary;
+    private final BlockingQueue<Log> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+    private final AuditOverflowPolicy overflowPolicy;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public BatchingAuditSink(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, LogActionDictionary actionDictionary,
+                             int capacity, int batchSize, Duration flushInterval, Duration offerTimeout, AuditOverflowPolicy overflowPolicy) {
+        if (capacity <= 0) throw new IllegalArgumentException("Audit queue capacity must be positive");
+        if (batchSize <= 0) throw new IllegalArgumentException("Audit batch size must be positive");
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.actionDictionary = actionDictionary;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        worker = new Thread(this::runWorker, "audit-log-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void record(Log log) {
+        if (log.getId() == null) log.setId(UuidV7.generate());
+
+        if (running && queue.offer(log)) {
+            enqueued.incrementAndGet();
+            return;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK -> {
+                if (running && offerWithTimeout(log)) {
+                    enqueued.incrementAndGet();
+                } else {
+                    writeBatch(List.of(log));
+                }
+            }
+            case DROP -> {
+                dropped.incrementAndGet();
+                logger.warn("Audit queue is full, dropping event: {}", log.getAction());
+            }
+            case CALLER_RUNS -> writeBatch(List.of(log));
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        // Guaranteed drain: whatever the worker did not get to is written on the shutdown thread
+        drain();
+        logger.info("Audit writer stopped: {} written, {} dropped, {} failed", written.get(), dropped.get(), failed.get());
+    }
+
+    private boolean offerWithTimeout(Log log) {
+        try {
+            return queue.offer(log, offerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void runWorker() {
+        List<Log> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Log first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                // Interrupted by destroy(); the remaining events are drained there
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void drain() {
+        List<Log> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Log> batch) {
+        try {
+            for (Log log : batch) log.setActionCode(actionDictionary.codeOf(log.getAction()));
+
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, log) -> {
+                ps.setObject(1, log.getId());
+                ps.setShort(2, log.getActionCode());
+                ps.setShort(3, log.getStatus());
+                ps.setString(4, log.getMessage());
+                ps.setTimestamp(5, log.getTimestamp() == null ? null : Timestamp.valueOf(log.getTimestamp()));
+            }));
+            written.addAndGet(batch.size());
+            batches.incrementAndGet();
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            logger.error("Failed to write {} audit events", batch.size(), e);
+        }
+    }
+
+    // Counters
+    public long getEnqueuedCount() { return enqueued.get(); }
+    public long getWrittenCount() { return written.get(); }
+    public long getDroppedCount() { return dropped.get(); }
+    public long getFailedCount() { return failed.get(); }
+    public long getBatchCount() { return batches.get(); }
+    public int getQueueDepth() { return queue.size(); }
+}
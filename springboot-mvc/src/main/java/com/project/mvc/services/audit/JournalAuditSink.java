@@ -0,0 +1,114 @@
+package com.project.mvc.services.audit;
+
+import com.project.mvc.data.entities.Log;
+import com.project.mvc.data.id.UuidV7;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AuditSink that appends every event to a local {@link AuditJournal} and ships the journal to the database in the background.
+ * <p>
+ * Recording an event is a single sequential append to a memory-mapped file, with no database round-trip, so request latency
+ * does not depend on how fast the database takes audit rows. Every {@code shipInterval} a loader thread seals the active segment
+ * and loads the sealed ones with COPY through an {@link AuditJournalLoader}. Unlike the queue of {@link BatchingAuditSink},
+ * the journal survives a crash of the JVM: segments left behind are sealed and loaded when the sink starts again.
+ * A segment that cannot be loaded stays on disk and is retried with the next interval.
+ */
+public class JournalAuditSink implements AuditSink, InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalAuditSink.class);
+
+    private final AuditJournal journal;
+    private final AuditJournalLoader loader;
+    private final Duration shipInterval;
+
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicLong shipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public JournalAuditSink(Path directory, int segmentSize, AuditJournalLoader loader, Duration shipInterval) {
+        this.journal = new AuditJournal(directory, segmentSize);
+        this.loader = loader;
+        this.shipInterval = shipInterval;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        journal.open();
+        running = true;
+        worker = new Thread(this::runWorker, "audit-journal-loader");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void record(Log log) {
+        if (log.getId() == null) log.setId(UuidV7.generate());
+
+        try {
+            journal.append(log);
+            appended.incrementAndGet();
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            logger.error("Failed to journal audit event: {}", log.getAction(), e);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        // Seal the active segment and make a last attempt to load everything; what fails is loaded on the next start
+        journal.close();
+        shipSealed();
+        logger.info("Audit journal stopped: {} appended, {} shipped, {} failed", appended.get(), shipped.get(), failed.get());
+    }
+
+    private void runWorker() {
+        // Replay of the segments a previous run did not ship
+        shipSealed();
+        while (running) {
+            try {
+                Thread.sleep(shipInterval.toMillis());
+            } catch (InterruptedException e) {
+                // Interrupted by destroy(); the remaining segments are shipped there
+                break;
+            }
+            try {
+                journal.roll();
+            } catch (RuntimeException e) {
+                logger.error("Failed to roll the audit journal", e);
+            }
+            shipSealed();
+        }
+    }
+
+    private void shipSealed() {
+        try {
+            for (Path segment : journal.sealedSegments()) {
+                shipped.addAndGet(loader.ship(segment));
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to ship audit journal segments, retrying later: {}", e.getMessage());
+        }
+    }
+
+    // Counters
+    public long getAppendedCount() { return appended.get(); }
+    public long getShippedCount() { return shipped.get(); }
+    public long getFailedCount() { return failed.get(); }
+}
@@ -0,0 +1,49 @@
+package com.project.mvc.services.audit;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codes of the audit actions in university.log_actions.
+ * <p>
+ * Audit rows store their action as a smallint code instead of repeating its name. Codes are cached in memory after the first lookup,
+ * and an action that is not in the table yet is registered on first use, so new actions need no migration.
+ * Known actions are only looked up: an INSERT that conflicts still takes a value of the smallint identity, and every restart would
+ * use up one code per action.
+ * Registration commits in its own transaction, so a cached code never refers to a rolled back row.
+ */
+public class LogActionDictionary {
+
+    private static final String INSERT_SQL = "INSERT INTO university.log_actions (name) VALUES (?) ON CONFLICT (name) DO NOTHING";
+    private static final String SELECT_SQL = "SELECT code FROM university.log_actions WHERE name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, Short> codes = new ConcurrentHashMap<>();
+
+    public LogActionDictionary(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public short codeOf(String action) {
+        return codes.computeIfAbsent(action == null ? "" : action, this::register);
+    }
+
+    private Short register(String name) {
+        return transactionTemplate.execute(status -> {
+            List<Short> known = jdbcTemplate.queryForList(SELECT_SQL, Short.class, name);
+            if (!known.isEmpty()) return known.get(0);
+
+            jdbcTemplate.update(INSERT_SQL, name);
+            return jdbcTemplate.queryForObject(SELECT_SQL, Short.class, name);
+        });
+    }
+}
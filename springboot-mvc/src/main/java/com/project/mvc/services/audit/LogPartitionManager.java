@@ -0,0 +1,163 @@
+package com.project.mvc.services.audit;
+
+import com.project.mvc.services.archive.LogArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the daily range partitions of university.log_records, the table behind the university.logs view.
+ * <p>
+ * university.log_records is partitioned by timestamp: one partition per day named logs_pYYYYMMDD, the rows from before the
+ * partitioning in logs_history, and logs_default for rows that no partition exists for. On startup and then every check interval
+ * the manager creates the partitions up to {@code precreateDays} days ahead and drops every partition that ended more than
+ * {@code retentionDays} days ago. Expired history is removed by dropping whole partitions instead of DELETEs, so it leaves
+ * no dead rows or bloated indexes behind, and an insert only ever touches the indexes of the current day's partition.
+ * <p>
+ * A new partition is created as a plain table, the rows the default partition already holds for its day are moved into it,
+ * and only then is it attached, since PostgreSQL refuses to attach a partition over rows held by the default partition.
+ * Every partition is handled in its own transaction, so one failure does not stop the others.
+ * <p>
+ * With a {@link LogArchive}, expired rows are archived to compressed segment files before they are dropped, in the same
+ * transaction, so the database holds only the retention window while older history stays queryable from the archive.
+ * The per-minute success counts in university.log_rollups follow the same retention period and are not archived.
+ */
+public class LogPartitionManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogPartitionManager.class);
+
+    private static final String SCHEMA = "university";
+    private static final String PARENT = "log_records";
+    private static final String DEFAULT_PARTITION = "logs_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter ARCHIVE_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    // Upper bound in the output of pg_get_expr, e.g. FOR VALUES FROM ('2024-05-01 00:00:00') TO ('2024-05-02 00:00:00')
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "JOIN pg_namespace n ON n.oid = p.relnamespace " +
+            "WHERE n.nspname = '" + SCHEMA + "' AND p.relname = '" + PARENT + "'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LogArchive logArchive;
+    private final int precreateDays;
+    private final int retentionDays;
+
+    /**
+     * @param logArchive archive for expired rows, or null to drop them without archiving
+     */
+    public LogPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, LogArchive logArchive,
+                               int precreateDays, int retentionDays) {
+        if (precreateDays < 1) throw new IllegalArgumentException("Log partitions must be created at least one day ahead");
+        if (retentionDays < 1) throw new IllegalArgumentException("Log retention must be at least one day");
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.logArchive = logArchive;
+        this.precreateDays = precreateDays;
+        this.retentionDays = retentionDays;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${university.logs.partitions.check-interval-ms:3600000}")
+    public void maintain() {
+        try {
+            LocalDate today = LocalDate.now();
+            Map<String, LocalDateTime> partitions = findPartitions();
+
+            // Daily partitions are contiguous, so new ones start where the latest existing partition ends
+            LocalDate next = partitions.values().stream()
+                    .map(LocalDateTime::toLocalDate)
+                    .filter(today::isBefore)
+                    .max(LocalDate::compareTo)
+                    .orElse(today);
+            for (LocalDate day = next; !day.isAfter(today.plusDays(precreateDays)); day = day.plusDays(1)) {
+                createPartition(day);
+            }
+
+            LocalDateTime cutoff = today.minusDays(retentionDays).atStartOfDay();
+            for (Entry<String, LocalDateTime> partition : partitions.entrySet()) {
+                if (!partition.getValue().isAfter(cutoff)) dropPartition(partition.getKey());
+            }
+            purgeDefaultPartition(cutoff);
+            purgeRollups(cutoff);
+        } catch (RuntimeException e) {
+            logger.error("Log partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // Name and upper bound of every bounded partition; the default partition is left out
+    private Map<String, LocalDateTime> findPartitions() {
+        Map<String, LocalDateTime> partitions = new LinkedHashMap<>();
+        jdbcTemplate.query(PARTITIONS_SQL, rs -> {
+            Matcher matcher = UPPER_BOUND.matcher(rs.getString(2));
+            if (matcher.find()) partitions.put(rs.getString(1), LocalDateTime.parse(matcher.group(1), BOUND_FORMAT));
+        });
+        return partitions;
+    }
+
+    private void createPartition(LocalDate day) {
+        String partition = SCHEMA + ".logs_p" + PARTITION_SUFFIX.format(day);
+        Timestamp from = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp to = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("CREATE TABLE " + partition + " (LIKE " + SCHEMA + "." + PARENT + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+                int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + SCHEMA + "." + DEFAULT_PARTITION +
+                        " WHERE timestamp >= ? AND timestamp < ? RETURNING *) INSERT INTO " + partition + " SELECT * FROM moved", from, to);
+                jdbcTemplate.execute("ALTER TABLE " + SCHEMA + "." + PARENT + " ATTACH PARTITION " + partition +
+                        " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                logger.info("Created log partition {} ({} rows moved from the default partition)", partition, moved);
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Could not create log partition {}: {}", partition, e.getMessage());
+        }
+    }
+
+    private void dropPartition(String name) {
+        try {
+            long archived = transactionTemplate.execute(status -> {
+                long rows = logArchive == null ? 0 : logArchive.archive(name, name, null);
+                jdbcTemplate.execute("DROP TABLE " + SCHEMA + "." + name);
+                return rows;
+            });
+            logger.info("Dropped log partition {}.{} ({} rows archived)", SCHEMA, name, archived);
+        } catch (RuntimeException e) {
+            logger.warn("Could not drop log partition {}.{}: {}", SCHEMA, name, e.getMessage());
+        }
+    }
+
+    // Rows that missed their partition are the only ones ever deleted row by row
+    private void purgeDefaultPartition(LocalDateTime cutoff) {
+        String archiveName = DEFAULT_PARTITION + "-" + ARCHIVE_SUFFIX.format(LocalDateTime.now());
+        int purged = transactionTemplate.execute(status -> {
+            if (logArchive != null) logArchive.archive(archiveName, DEFAULT_PARTITION, cutoff);
+            return jdbcTemplate.update("DELETE FROM " + SCHEMA + "." + DEFAULT_PARTITION + " WHERE timestamp < ?", Timestamp.valueOf(cutoff));
+        });
+        if (purged > 0) logger.info("Purged {} expired rows from the default log partition", purged);
+    }
+
+    private void purgeRollups(LocalDateTime cutoff) {
+        int purged = transactionTemplate.execute(status -> jdbcTemplate.update(
+                "DELETE FROM " + SCHEMA + ".log_rollups WHERE minute < ?", Timestamp.valueOf(cutoff)));
+        if (purged > 0) logger.info("Purged {} expired audit rollups", purged);
+    }
+}
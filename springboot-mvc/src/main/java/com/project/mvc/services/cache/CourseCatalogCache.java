@@ -0,0 +1,126 @@
+package com.project.mvc.services.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.mvc.data.entities.Course;
+import com.project.mvc.models.university.CatalogCourse;
+import com.project.mvc.repositories.CourseRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Read-through, in-process cache of the course catalog in front of CourseRepository.
+ * <p>
+ * Courses are cached by id, by instructor and by online flag, each bounded by {@code university.course-cache.maximum-size}
+ * entries and expired {@code university.course-cache.ttl-seconds} after being loaded. Only {@link CatalogCourse} data is cached;
+ * the remaining capacity changes with every enrollment and is never served from here. Unknown ids are not cached.
+ * <p>
+ * Writers call {@link #evict(Course)} with the changed course. The affected entries are dropped at once and again after commit,
+ * so a reader that reloads the old row while the writing transaction is still open cannot keep it cached.
+ * Hit, miss, load and eviction counters are exposed through {@link #getStats()}.
+ */
+@Component
+public class CourseCatalogCache {
+
+    private final CourseRepository courseRepository;
+
+    private final Cache<UUID, CatalogCourse> byId;
+    private final Cache<String, List<CatalogCourse>> byInstructor;
+    private final Cache<Boolean, List<CatalogCourse>> byOnline;
+
+    public CourseCatalogCache(CourseRepository courseRepository,
+                              @Value("${university.course-cache.maximum-size:10000}") long maximumSize,
+                              @Value("${university.course-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.courseRepository = courseRepository;
+        this.byId = newCache(maximumSize, ttlSeconds);
+        this.byInstructor = newCache(maximumSize, ttlSeconds);
+        this.byOnline = newCache(maximumSize, ttlSeconds);
+    }
+
+    public Optional<CatalogCourse> findById(UUID id) {
+        CatalogCourse course = byId.get(id, key -> courseRepository.findCatalogById(key).orElse(null));
+        return Optional.ofNullable(course);
+    }
+
+    public boolean exists(UUID id) {
+        return findById(id).isPresent();
+    }
+
+    public List<CatalogCourse> findByInstructor(String instructor) {
+        return byInstructor.get(instructor, key -> List.copyOf(courseRepository.findCatalogByInstructor(key)));
+    }
+
+    public List<CatalogCourse> findByOnline(boolean online) {
+        return byOnline.get(online, key -> List.copyOf(courseRepository.findCatalogByOnline(key)));
+    }
+
+    /**
+     * Drop every entry the given course can appear in. When the instructor or the online flag changes,
+     * call this with the course before and after the change.
+     */
+    public void evict(Course course) {
+        UUID id = course.getId();
+        String instructor = course.getInstructor();
+        boolean online = course.isOnline();
+
+        evict(id, instructor, online);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id, instructor, online);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        byId.invalidateAll();
+        byInstructor.invalidateAll();
+        byOnline.invalidateAll();
+    }
+
+    public Map<String, Map<String, Long>> getStats() {
+        Map<String, Map<String, Long>> snapshot = new TreeMap<>();
+        snapshot.put("byId", snapshot(byId));
+        snapshot.put("byInstructor", snapshot(byInstructor));
+        snapshot.put("byOnline", snapshot(byOnline));
+        return snapshot;
+    }
+
+    private void evict(UUID id, String instructor, boolean online) {
+        if (id != null) byId.invalidate(id);
+        if (instructor != null) byInstructor.invalidate(instructor);
+        byOnline.invalidate(online);
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maximumSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    private static Map<String, Long> snapshot(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Long> values = new TreeMap<>();
+        values.put("size", cache.estimatedSize());
+        values.put("hits", stats.hitCount());
+        values.put("misses", stats.missCount());
+        values.put("loads", stats.loadSuccessCount());
+        values.put("loadFailures", stats.loadFailureCount());
+        values.put("evictions", stats.evictionCount());
+        return values;
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.mvc.services.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a stream of rows as newline-delimited JSON (one JSON document per line).
+ * <p>
+ * Each row is serialized as soon as it is read from the stream, so memory use does not depend on the number of rows.
+ * The output is flushed every {@link #FLUSH_EVERY_ROWS} rows, which lets the first bytes reach the client immediately
+ * without paying for a flush per row. The target stream is left open.
+ */
+@Component
+public class NdjsonWriter {
+
+    static final int FLUSH_EVERY_ROWS = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+
+    @Autowired
+    public NdjsonWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public <T> long write(Stream<T> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+
+                if (++count % FLUSH_EVERY_ROWS == 0) generator.flush();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,138 @@
+package com.project.mvc.services.retry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a whole transactional service call when PostgreSQL reports a serialization failure (SQLState 40001)
+ * or a deadlock (SQLState 40P01).
+ * <p>
+ * The action must start its own transaction, e.g. a call through the proxy of a {@code @Transactional} service method,
+ * so every attempt is a fresh transaction. Between attempts the executor sleeps for a jittered exponential backoff
+ * ("full jitter": a random delay between 0 and min(maxBackoff, initialBackoff * 2^attempt)), and gives up after maxAttempts.
+ * When a transaction is already active on the calling thread the action runs exactly once, because only the outermost
+ * caller can roll back and repeat the work.
+ * <p>
+ * Attempts, retries, successes and give-ups are counted per action name and exposed through {@link #getStats()}.
+ */
+@Service
+public class TransactionRetryExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionRetryExecutor.class);
+
+    private static final String SERIALIZATION_FAILURE = "40001";
+    private static final String DEADLOCK_DETECTED = "40P01";
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Map<String, MethodStats> stats = new ConcurrentHashMap<>();
+
+    public TransactionRetryExecutor(@Value("${university.retry.max-attempts:5}") int maxAttempts,
+                                    @Value("${university.retry.initial-backoff-ms:20}") long initialBackoffMs,
+                                    @Value("${university.retry.max-backoff-ms:500}") long maxBackoffMs) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("Retry max attempts must be at least 1");
+
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public void run(String name, Runnable action) {
+        execute(name, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T execute(String name, Supplier<T> action) {
+        MethodStats methodStats = stats.computeIfAbsent(name, key -> new MethodStats());
+
+        // Inside an outer transaction a retry would only repeat part of the work
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            methodStats.attempts.increment();
+            return action.get();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            methodStats.attempts.increment();
+            try {
+                T result = action.get();
+                methodStats.successes.increment();
+                return result;
+            } catch (RuntimeException e) {
+                if (!isRetryable(e)) throw e;
+
+                if (attempt >= maxAttempts) {
+                    methodStats.giveUps.increment();
+                    logger.warn("Giving up on {} after {} attempts: {}", name, attempt, e.getMessage());
+                    throw e;
+                }
+
+                methodStats.retries.increment();
+                logger.debug("Retrying {} after attempt {}: {}", name, attempt, e.getMessage());
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    public Map<String, Map<String, Long>> getStats() {
+        Map<String, Map<String, Long>> snapshot = new TreeMap<>();
+        stats.forEach((name, methodStats) -> snapshot.put(name, methodStats.snapshot()));
+        return snapshot;
+    }
+
+    static boolean isRetryable(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof PessimisticLockingFailureException) return true;
+
+            if (t instanceof SQLException sqlException) {
+                String sqlState = sqlException.getSQLState();
+                if (SERIALIZATION_FAILURE.equals(sqlState) || DEADLOCK_DETECTED.equals(sqlState)) return true;
+            }
+
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+
+    private void backoff(int attempt, RuntimeException failure) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    private static class MethodStats {
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder successes = new LongAdder();
+        private final LongAdder giveUps = new LongAdder();
+
+        private Map<String, Long> snapshot() {
+            Map<String, Long> values = new TreeMap<>();
+            values.put("attempts", attempts.sum());
+            values.put("retries", retries.sum());
+            values.put("successes", successes.sum());
+            values.put("giveUps", giveUps.sum());
+            return values;
+        }
+    }
+}
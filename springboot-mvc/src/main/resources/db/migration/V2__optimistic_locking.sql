@@ -0,0 +1,5 @@
+-- Optimistic locking on courses and enrollments.
+-- Existing rows start at version 0.
+
+ALTER TABLE university.courses ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE university.enrollments ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,39 @@
+-- Range-partition university.logs by day on timestamp.
+-- The existing rows move into logs_history, which ends at the start of the day after the newest row (at least tomorrow).
+-- LogPartitionManager creates the daily partitions logs_pYYYYMMDD from there on and drops them after the retention period;
+-- rows for which no partition exists land in logs_default.
+-- The primary key of a partitioned table must contain the partition key, hence (id, timestamp).
+
+ALTER TABLE university.logs RENAME TO logs_legacy;
+ALTER TABLE university.logs_legacy RENAME CONSTRAINT logs_pkey TO logs_legacy_pkey;
+DROP INDEX IF EXISTS university.idx_logs_timestamp;
+
+CREATE TABLE university.logs (
+    id        uuid         NOT NULL,
+    action    varchar(255),
+    outcome   varchar(255),
+    timestamp timestamp(6) NOT NULL,
+    CONSTRAINT logs_pkey PRIMARY KEY (id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE INDEX idx_logs_timestamp ON university.logs (timestamp);
+
+CREATE TABLE university.logs_default PARTITION OF university.logs DEFAULT;
+
+DO $$
+DECLARE
+    history_end timestamp;
+BEGIN
+    SELECT greatest(date_trunc('day', localtimestamp), date_trunc('day', max(timestamp))) + interval '1 day'
+    INTO history_end
+    FROM university.logs_legacy;
+
+    EXECUTE format('CREATE TABLE university.logs_history PARTITION OF university.logs FOR VALUES FROM (MINVALUE) TO (%L)', history_end);
+END
+$$;
+
+INSERT INTO university.logs (id, action, outcome, timestamp)
+SELECT id, action, outcome, coalesce(timestamp, timestamp 'epoch')
+FROM university.logs_legacy;
+
+DROP TABLE university.logs_legacy;
@@ -0,0 +1,84 @@
+package com.project.mvc;
+
+import com.project.mvc.data.entities.Course;
+import com.project.mvc.data.entities.Student;
+import com.project.mvc.repositories.CourseRepository;
+import com.project.mvc.repositories.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Base class of the tests that run the application against a real PostgreSQL started with Testcontainers.
+ * <p>
+ * One container is shared by all test classes, so the cached application context keeps pointing at a running database;
+ * the schema is created by the Flyway migrations at startup. Tests are skipped when Docker is not available.
+ * Every test creates its own students and courses, so tests do not depend on each other's data.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresIntegrationTest {
+
+    // Enough connections for the pools of a few cached application contexts
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "max_connections=500");
+
+    @Autowired
+    protected StudentRepository studentRepository;
+
+    @Autowired
+    protected CourseRepository courseRepository;
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        POSTGRES.start();
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        // One connection for each of the 100 threads of the concurrency tests, plus the audit writer
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> 110);
+        registry.add("spring.datasource.hikari.minimum-idle", () -> 5);
+    }
+
+    protected Course newCourse(String name, int capacity) {
+        Course course = new Course();
+        course.setName(name);
+        course.setInstructor("Instructor " + name);
+        course.setSchedule("Mon 10:00");
+        course.setCapacity(capacity);
+        return courseRepository.save(course);
+    }
+
+    protected List<UUID> newStudents(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Student student = new Student();
+            String name = "Student " + UUID.randomUUID();
+            student.setName(name);
+            student.setEmail(name.replace(' ', '.') + "@example.com");
+            student.setMajor("Physics");
+            student.setYear(1);
+            ids.add(studentRepository.save(student).getId());
+        }
+        return ids;
+    }
+
+    protected int seatsLeft(UUID courseId) {
+        return jdbcTemplate.queryForObject("SELECT capacity FROM university.courses WHERE id = ?", Integer.class, courseId);
+    }
+
+    protected int enrollmentCount(UUID courseId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM university.enrollments WHERE course_id = ?", Integer.class, courseId);
+    }
+}
@@ -0,0 +1,87 @@
+package com.project.mvc.config.routing;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The primary is forced for exactly the lifetime of a request, on whichever thread serves it, and never stays forced on a container thread.
+ */
+class ReadYourWritesInterceptorTest {
+
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void containerThreadIsReleased() {
+        assertFalse(DataSourceRouting.isPrimaryForced());
+    }
+
+    @Test
+    void headerForcesThePrimaryUntilTheRequestCompletes() {
+        MockHttpServletRequest request = request(true);
+
+        interceptor.preHandle(request, response, null);
+        assertTrue(DataSourceRouting.isPrimaryForced());
+
+        interceptor.afterCompletion(request, response, null, null);
+    }
+
+    @Test
+    void requestsWithoutTheHeaderAreNotForced() {
+        MockHttpServletRequest request = request(false);
+
+        interceptor.preHandle(request, response, null);
+        assertFalse(DataSourceRouting.isPrimaryForced());
+
+        interceptor.afterCompletion(request, response, null, null);
+    }
+
+    @Test
+    void asyncRequestsForceThePrimaryOnTheirOwnThread() throws Exception {
+        MockHttpServletRequest request = request(true);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, response));
+        asyncManager.setTaskExecutor(new SimpleAsyncTaskExecutor());
+
+        // REQUEST dispatch: the handler starts the async body, then the container thread is handed back
+        interceptor.preHandle(request, response, null);
+        Callable<Boolean> body = DataSourceRouting::isPrimaryForced;
+        asyncManager.startCallableProcessing(body);
+        interceptor.afterConcurrentHandlingStarted(request, response, null);
+        assertFalse(DataSourceRouting.isPrimaryForced());
+
+        assertEquals(Boolean.TRUE, awaitResult(asyncManager));
+
+        // ASYNC dispatch that writes the result
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, null);
+        assertFalse(DataSourceRouting.isPrimaryForced());
+        interceptor.afterCompletion(request, response, null, null);
+    }
+
+    private static MockHttpServletRequest request(boolean readYourWrites) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/university/export/courses");
+        request.setAsyncSupported(true);
+        if (readYourWrites) request.addHeader(ReadYourWritesInterceptor.HEADER, "true");
+        return request;
+    }
+
+    private static Object awaitResult(WebAsyncManager asyncManager) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!asyncManager.hasConcurrentResult() && System.currentTimeMillis() < deadline) Thread.sleep(10);
+        return asyncManager.getConcurrentResult();
+    }
+}
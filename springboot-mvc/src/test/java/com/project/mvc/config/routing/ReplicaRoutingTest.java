@@ -0,0 +1,119 @@
+package com.project.mvc.config.routing;
+
+import com.project.mvc.PostgresIntegrationTest;
+import com.project.mvc.data.entities.Student;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routing between two PostgreSQL instances: the shared test database is the primary, and a second container with the same schema
+ * but no replication stands in for the replica, so a row written on the primary is only visible to reads routed there.
+ * <p>
+ * The tests run in name order, since the last one stops the replica; the context is closed afterwards.
+ */
+@TestMethodOrder(MethodOrderer.MethodName.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ReplicaRoutingTest extends PostgresIntegrationTest {
+
+    private static final String REPLICA_DATABASE = "replica";
+
+    private static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName(REPLICA_DATABASE);
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        REPLICA.start();
+        Flyway.configure()
+                .dataSource(REPLICA.getJdbcUrl(), REPLICA.getUsername(), REPLICA.getPassword())
+                .schemas("university")
+                .load()
+                .migrate();
+
+        registry.add("university.datasource.replica.url", REPLICA::getJdbcUrl);
+        registry.add("university.datasource.replica.username", REPLICA::getUsername);
+        registry.add("university.datasource.replica.password", REPLICA::getPassword);
+    }
+
+    @Test
+    void headerForcesThePrimary() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/university/students");
+        request.addHeader(ReadYourWritesInterceptor.HEADER, "true");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor();
+
+        interceptor.preHandle(request, response, null);
+        try {
+            assertNotEquals(REPLICA_DATABASE, database(true));
+        } finally {
+            interceptor.afterCompletion(request, response, null, null);
+        }
+        assertEquals(REPLICA_DATABASE, database(true));
+    }
+
+    @Test
+    void onPrimaryReadsBackWhatWasJustWritten() {
+        String major = "Routing " + UUID.randomUUID();
+        Student student = new Student();
+        student.setName("Routed");
+        student.setEmail(major.replace(' ', '.') + "@example.com");
+        student.setMajor(major);
+        student.setYear(1);
+        studentRepository.save(student);
+
+        assertEquals(0, studentRepository.findByMajor(major).size());
+        assertEquals(1, DataSourceRouting.onPrimary(() -> studentRepository.findByMajor(major)).size());
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() {
+        long before = routingDataSource.getStats().get("replicaConnections");
+
+        assertEquals(REPLICA_DATABASE, database(true));
+        assertTrue(routingDataSource.getStats().get("replicaConnections") > before);
+    }
+
+    @Test
+    void readWriteTransactionsGoToThePrimary() {
+        assertNotEquals(REPLICA_DATABASE, database(false));
+    }
+
+    @Test
+    void stoppedReplicaFallsBackToThePrimary() {
+        long before = routingDataSource.getStats().get("fallbacks");
+        REPLICA.stop();
+
+        assertNotEquals(REPLICA_DATABASE, database(true));
+        assertTrue(routingDataSource.getStats().get("fallbacks") > before);
+        assertEquals(Long.valueOf(1), routingDataSource.getStats().get("replicaDown"));
+    }
+
+    // The database that serves a transaction with the given read-only flag
+    private String database(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.mvc.data.id;
+
+import com.project.mvc.PostgresIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Inserts the same number of rows keyed by random (version 4) and by time-ordered (version 7) uuids into two scratch tables
+ * and logs the insert throughput and the size of each primary key index.
+ * <p>
+ * Random keys land on any leaf of the index and split half-full pages all over it, so its index ends up larger;
+ * time-ordered keys are appended at the right edge, where splits leave the earlier pages full.
+ */
+class UuidKeyBenchmarkTest extends PostgresIntegrationTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(UuidKeyBenchmarkTest.class);
+
+    private static final int ROWS = 200_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS university.uuid_keys_random, university.uuid_keys_v7");
+    }
+
+    @Test
+    void timeOrderedKeysKeepThePrimaryKeySmaller() {
+        long randomRate = insert("uuid_keys_random", UUID::randomUUID);
+        long timeOrderedRate = insert("uuid_keys_v7", UuidV7::generate);
+        long randomBytes = primaryKeyBytes("uuid_keys_random");
+        long timeOrderedBytes = primaryKeyBytes("uuid_keys_v7");
+
+        logger.info("{} rows keyed by random uuids: {} rows/s, primary key {} kB", ROWS, randomRate, randomBytes / 1024);
+        logger.info("{} rows keyed by uuid v7: {} rows/s, primary key {} kB", ROWS, timeOrderedRate, timeOrderedBytes / 1024);
+
+        assertTrue(timeOrderedBytes < randomBytes, "uuid v7 index " + timeOrderedBytes + " bytes, random " + randomBytes + " bytes");
+    }
+
+    // Creates the table, fills it in batches and returns the rows inserted per second
+    private long insert(String table, Supplier<UUID> ids) {
+        jdbcTemplate.execute("CREATE TABLE university." + table + " (id uuid PRIMARY KEY, payload integer NOT NULL)");
+
+        long start = System.nanoTime();
+        for (int offset = 0; offset < ROWS; offset += BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < BATCH_SIZE; i++) rows.add(new Object[]{ids.get(), offset + i});
+            jdbcTemplate.batchUpdate("INSERT INTO university." + table + " (id, payload) VALUES (?, ?)", rows);
+        }
+        return ROWS * 1_000_000_000L / (System.nanoTime() - start);
+    }
+
+    private long primaryKeyBytes(String table) {
+        return jdbcTemplate.queryForObject("SELECT pg_relation_size('university." + table + "_pkey')", Long.class);
+    }
+}
@@ -0,0 +1,80 @@
+package com.project.mvc.data.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7Test {
+
+    @Test
+    void isVersion7WithTheIetfVariant() {
+        UUID id = UuidV7.generate();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+    }
+
+    // The timestamp may run ahead of the clock by a few milliseconds after bursts of ids in other tests
+    @Test
+    void startsWithTheCurrentUnixMillis() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7.generate();
+        long after = System.currentTimeMillis();
+
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after + 1_000, "Timestamp " + millis + " outside [" + before + ", " + after + "]");
+    }
+
+    // Each id sorts after all earlier ones, as PostgreSQL compares uuids, so new rows go to the right edge of the primary key index;
+    // far more than 4096 ids are generated within one millisecond here
+    @Test
+    void sortsInGenerationOrder() {
+        UUID previous = UuidV7.generate();
+        for (int i = 0; i < 100_000; i++) {
+            UUID next = UuidV7.generate();
+            assertTrue(compareAsPostgres(previous, next) < 0, previous + " does not sort before " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    void staysUniqueAndOrderedPerThreadUnderContention() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> ids = new ArrayList<>();
+                    for (int i = 0; i < 20_000; i++) ids.add(UuidV7.generate());
+                    return ids;
+                }));
+            }
+
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> ids = future.get();
+                for (int i = 1; i < ids.size(); i++) assertTrue(compareAsPostgres(ids.get(i - 1), ids.get(i)) < 0);
+                all.addAll(ids);
+            }
+            assertEquals(8 * 20_000, all.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // PostgreSQL orders uuids by their bytes, unsigned
+    private static int compareAsPostgres(UUID a, UUID b) {
+        int msb = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return msb != 0 ? msb : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
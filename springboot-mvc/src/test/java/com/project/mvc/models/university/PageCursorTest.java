@@ -0,0 +1,44 @@
+package com.project.mvc.models.university;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    private static final UUID ID = UUID.fromString("0190f0c4-8b2a-7c3d-9e4f-0123456789ab");
+
+    @Test
+    void roundTripsKeyAndId() {
+        PageCursor cursor = PageCursor.decode(new PageCursor("Physics: 101", ID).encode());
+
+        assertEquals("Physics: 101", cursor.getKey());
+        assertEquals(ID, cursor.getId());
+    }
+
+    @Test
+    void keepsEmptyAndNullKeysApart() {
+        PageCursor empty = PageCursor.decode(new PageCursor("", ID).encode());
+        PageCursor none = PageCursor.decode(PageCursor.of(ID).encode());
+
+        assertEquals("", empty.getKey());
+        assertNull(none.getKey());
+        assertEquals(ID, none.getId());
+    }
+
+    @Test
+    void blankTokenStartsFromTheFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(" "));
+    }
+
+    @Test
+    void rejectsForeignTokens() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("bm90LWEtdXVpZDprZXk"));
+    }
+}
@@ -0,0 +1,79 @@
+package com.project.mvc.repositories;
+
+import com.project.mvc.PostgresIntegrationTest;
+import com.project.mvc.data.entities.Course;
+import com.project.mvc.services.UniversityService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Repeated reads of a course and of the cached course queries are served by the second-level and query caches without any SQL,
+ * also while other courses take and release seats.
+ */
+class CourseCacheTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UniversityService universityService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void statistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void repeatedReadsIssueNoSql() {
+        Course course = newCourse("Cached " + UUID.randomUUID(), 5);
+        read(course);
+
+        statistics.clear();
+        read(course);
+        read(course);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void enrollmentsInOtherCoursesKeepTheCourseCached() {
+        Course course = newCourse("Cached " + UUID.randomUUID(), 5);
+        UUID otherCourseId = newCourse("Busy " + UUID.randomUUID(), 5).getId();
+        UUID studentId = newStudents(1).get(0);
+        read(course);
+
+        universityService.enrollStudentInCourse(studentId, otherCourseId);
+
+        statistics.clear();
+        read(course);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void takingASeatEvictsOnlyThatCourse() {
+        Course course = newCourse("Cached " + UUID.randomUUID(), 5);
+        UUID studentId = newStudents(1).get(0);
+        read(course);
+
+        universityService.enrollStudentInCourse(studentId, course.getId());
+
+        assertEquals(4, courseRepository.findById(course.getId()).orElseThrow().getCapacity());
+    }
+
+    private void read(Course course) {
+        courseRepository.findById(course.getId()).orElseThrow();
+        courseRepository.findByInstructor(course.getInstructor());
+        courseRepository.findByName(course.getName());
+    }
+}
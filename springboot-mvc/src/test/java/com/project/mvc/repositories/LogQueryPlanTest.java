@@ -0,0 +1,139 @@
+package com.project.mvc.repositories;
+
+import com.project.mvc.PostgresIntegrationTest;
+import com.project.mvc.data.id.UuidV7;
+import com.project.mvc.models.university.LogFilter;
+import com.project.mvc.services.audit.LogPartitionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The plans of the audit log queries seek on the composite index of their criterion, read it in (timestamp, id) order without
+ * sorting, and only touch the partitions of their time range. Sequential scans are disabled, so a plan that still contains one
+ * had no usable index.
+ */
+class LogQueryPlanTest extends PostgresIntegrationTest {
+
+    private static final String COMMON_ACTION = "Plan Test Common";
+    private static final String RARE_ACTION = "Plan Test Rare";
+
+    private static final Pattern SORT_NODE = Pattern.compile("(^|->)\\s*(Incremental )?Sort\\s+\\(", Pattern.MULTILINE);
+    private static final Pattern PARTITION = Pattern.compile("logs_(p\\d{8}|default)\\b");
+
+    private final LocalDateTime today = LocalDate.now().atStartOfDay();
+
+    @Autowired
+    private LogPartitionManager logPartitionManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void logs() {
+        logPartitionManager.maintain();
+        jdbcTemplate.update("INSERT INTO university.log_actions (name) VALUES (?), (?) ON CONFLICT (name) DO NOTHING", COMMON_ACTION, RARE_ACTION);
+        short common = jdbcTemplate.queryForObject("SELECT code FROM university.log_actions WHERE name = ?", Short.class, COMMON_ACTION);
+        short rare = jdbcTemplate.queryForObject("SELECT code FROM university.log_actions WHERE name = ?", Short.class, RARE_ACTION);
+
+        // Mostly successes of one action, spread over today, and a few failures of another
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            boolean rareRow = i % 250 == 0;
+            rows.add(new Object[]{UuidV7.generate(), rareRow ? rare : common,
+                    rareRow ? LogFilter.Status.FAILURE.getCode() : LogFilter.Status.SUCCESS.getCode(),
+                    rareRow ? "Failure" : null, Timestamp.valueOf(today.plusSeconds(i * 17L))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO university.log_records (id, action_code, status, message, timestamp) VALUES (?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE university.log_records");
+    }
+
+    @Test
+    void actionQuerySeeksOnTheActionIndex() {
+        LogFilter filter = new LogFilter(RARE_ACTION, null, today, today.plusDays(1));
+
+        assertSeeksOn("action_code_timestamp_id_idx", firstPagePlan(filter));
+        assertSeeksOn("action_code_timestamp_id_idx", nextPagePlan(filter));
+    }
+
+    @Test
+    void statusQuerySeeksOnTheStatusIndex() {
+        LogFilter filter = new LogFilter(null, LogFilter.Status.FAILURE, today, today.plusDays(1));
+
+        assertSeeksOn("status_timestamp_id_idx", firstPagePlan(filter));
+        assertSeeksOn("status_timestamp_id_idx", nextPagePlan(filter));
+    }
+
+    @Test
+    void timeRangeQuerySeeksOnTheTimestampIndex() {
+        LogFilter filter = new LogFilter(null, null, today, today.plusDays(1));
+
+        for (String plan : List.of(firstPagePlan(filter), nextPagePlan(filter))) {
+            assertSeeksOn("timestamp_id_idx", plan);
+            assertFalse(plan.contains("action_code_timestamp_id_idx") || plan.contains("status_timestamp_id_idx"), plan);
+        }
+    }
+
+    // The export reads every matching row, so it may sort them; it must still seek rather than scan
+    @Test
+    void exportSeeksOnTheActionIndex() {
+        String plan = exportPlan(new LogFilter(RARE_ACTION, null, today, today.plusDays(1)));
+
+        assertTrue(plan.contains("action_code_timestamp_id_idx"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void timeRangeOnlyTouchesItsPartitions() {
+        String plan = firstPagePlan(new LogFilter(null, null, today, today.plusDays(1)));
+
+        Set<String> partitions = new TreeSet<>();
+        Matcher matcher = PARTITION.matcher(plan);
+        while (matcher.find()) partitions.add(matcher.group());
+        assertEquals(Set.of("logs_p" + today.toLocalDate().toString().replace("-", "")), partitions, plan);
+    }
+
+    private String firstPagePlan(LogFilter filter) {
+        List<Object> args = new ArrayList<>();
+        return explain(LogRepositoryImpl.firstPageSql(filter, 50, args), args);
+    }
+
+    private String nextPagePlan(LogFilter filter) {
+        List<Object> args = new ArrayList<>();
+        return explain(LogRepositoryImpl.nextPageSql(filter, today.plusHours(12), UuidV7.generate(), 50, args), args);
+    }
+
+    private String exportPlan(LogFilter filter) {
+        List<Object> args = new ArrayList<>();
+        return explain(LogRepositoryImpl.allSql(filter, args), args);
+    }
+
+    private String explain(String sql, List<Object> args) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args.toArray()));
+        });
+    }
+
+    private static void assertSeeksOn(String index, String plan) {
+        assertTrue(plan.contains(index), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+        assertFalse(SORT_NODE.matcher(plan).find(), plan);
+    }
+}
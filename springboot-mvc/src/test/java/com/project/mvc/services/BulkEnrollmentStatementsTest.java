@@ -0,0 +1,59 @@
+package com.project.mvc.services;
+
+import com.project.mvc.PostgresIntegrationTest;
+import com.project.mvc.StatementCounter;
+import com.project.mvc.models.university.EnrollmentPair;
+import com.project.mvc.models.university.EnrollmentResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A registrar import costs a fixed number of round trips for validation and seats, plus one multi-row INSERT per 500 enrollments,
+ * however many pairs it carries.
+ */
+@Import(StatementCounter.class)
+class BulkEnrollmentStatementsTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Test
+    void roundTripsDoNotGrowWithThePairs() {
+        StatementCounter.Recording small = enroll(10);
+        StatementCounter.Recording large = enroll(900);
+
+        // Students, courses and existing enrollments are each looked up once, the seats of the course are taken once,
+        // and the enrollments are inserted with one statement per 500
+        assertEquals(5, small.getStatements());
+        assertEquals(6, large.getStatements());
+
+        assertEquals(0, small.getBatches());
+        assertEquals(0, large.getBatches());
+        assertTrue(large.getRoundTrips() <= 6, "900 enrollments took " + large.getRoundTrips() + " round trips");
+    }
+
+    private StatementCounter.Recording enroll(int count) {
+        UUID courseId = newCourse("Import " + UUID.randomUUID(), count).getId();
+        List<EnrollmentPair> pairs = newStudents(count).stream()
+                .map(studentId -> new EnrollmentPair(studentId, courseId))
+                .toList();
+
+        StatementCounter.Recording recording = statementCounter.record(() -> {
+            for (EnrollmentResult result : universityService.enrollStudentsInCourses(pairs)) {
+                assertEquals(EnrollmentResult.Status.ENROLLED, result.getStatus());
+            }
+        });
+        assertEquals(count, enrollmentCount(courseId));
+        return recording;
+    }
+}
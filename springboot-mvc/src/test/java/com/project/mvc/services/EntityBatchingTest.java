@@ -0,0 +1,116 @@
+package com.project.mvc.services;
+
+import com.project.mvc.PostgresIntegrationTest;
+import com.project.mvc.StatementCounter;
+import com.project.mvc.config.bulk.BulkWriteMode;
+import com.project.mvc.data.entities.Enrollment;
+import com.project.mvc.models.university.EnrollmentPair;
+import com.project.mvc.repositories.EnrollmentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Entity writes go through Hibernate's JDBC batching: one round trip per {@code hibernate.jdbc.batch_size} rows,
+ * or per {@code university.jpa.bulk-batch-size} rows in bulk write mode.
+ */
+@Import(StatementCounter.class)
+class EntityBatchingTest extends PostgresIntegrationTest {
+
+    private static final int ROWS = 1000;
+    private static final int BATCH_SIZE = 50;
+    private static final int BULK_BATCH_SIZE = 500;
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private BulkWriteMode bulkWriteMode;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void persistedEnrollmentsAreInsertedInBatches() {
+        UUID courseId = newCourse("Persist " + UUID.randomUUID(), ROWS).getId();
+        List<UUID> students = newStudents(ROWS);
+
+        StatementCounter.Recording recording = statementCounter.record(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Enrollment> enrollments = new ArrayList<>(ROWS);
+            for (UUID studentId : students) {
+                Enrollment enrollment = new Enrollment();
+                enrollment.setStudent(studentRepository.getReferenceById(studentId));
+                enrollment.setCourse(courseRepository.getReferenceById(courseId));
+                enrollment.setEnrollmentDate(new Date());
+                enrollments.add(enrollment);
+            }
+            enrollmentRepository.saveAll(enrollments);
+        }));
+
+        assertEquals(ROWS, enrollmentCount(courseId));
+        assertEquals(0, recording.getStatements());
+        assertEquals(ROWS / BATCH_SIZE, recording.getBatches());
+    }
+
+    @Test
+    void recordedGradesAreUpdatedInBatches() {
+        UUID courseId = enrolledCourse();
+        Map<UUID, Integer> grades = grades(courseId, 80);
+
+        StatementCounter.Recording recording = statementCounter.record(() -> universityService.recordGrades(courseId, grades));
+
+        assertEquals(ROWS, gradedCount(courseId, 80));
+        // The stream of enrollments, then the updates of each chunk of 500
+        assertEquals(1, recording.getStatements());
+        assertEquals(ROWS / BATCH_SIZE, recording.getBatches());
+    }
+
+    @Test
+    void bulkWriteModeUpdatesInLargerBatches() {
+        UUID courseId = enrolledCourse();
+        Map<UUID, Integer> grades = grades(courseId, 90);
+
+        StatementCounter.Recording recording = statementCounter.record(() -> new TransactionTemplate(transactionManager).execute(status ->
+                bulkWriteMode.execute(() -> universityService.recordGrades(courseId, grades))));
+
+        assertEquals(ROWS, gradedCount(courseId, 90));
+        assertEquals(1, recording.getStatements());
+        assertEquals(ROWS / BULK_BATCH_SIZE, recording.getBatches());
+    }
+
+    private UUID enrolledCourse() {
+        UUID courseId = newCourse("Grades " + UUID.randomUUID(), ROWS).getId();
+        universityService.enrollStudentsInCourses(newStudents(ROWS).stream()
+                .map(studentId -> new EnrollmentPair(studentId, courseId))
+                .toList());
+        return courseId;
+    }
+
+    private Map<UUID, Integer> grades(UUID courseId, int grade) {
+        return jdbcTemplate.queryForList("SELECT student_id FROM university.enrollments WHERE course_id = ?", UUID.class, courseId).stream()
+                .collect(Collectors.toMap(Function.identity(), studentId -> grade));
+    }
+
+    private int gradedCount(UUID courseId, int grade) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM university.enrollments WHERE course_id = ? AND grade = ?",
+                Integer.class, courseId, grade);
+    }
+}
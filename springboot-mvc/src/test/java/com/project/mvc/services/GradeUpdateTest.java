@@ -0,0 +1,78 @@
+package com.project.mvc.services;
+
+import com.project.mvc.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The grade updates of a course, set-based and chunked, and the savepoints of their nested transactions.
+ */
+class GradeUpdateTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private UniversityService universityService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void recordGradesGradesOnlyEnrolledStudents() {
+        UUID courseId = newCourse("Grades " + UUID.randomUUID(), 3).getId();
+        List<UUID> students = enroll(courseId, 3);
+        UUID stranger = newStudents(1).get(0);
+
+        int graded = universityService.recordGrades(courseId, Map.of(students.get(0), 90, students.get(1), 75, stranger, 60));
+
+        assertEquals(2, graded);
+        assertEquals(90, grade(students.get(0), courseId));
+        assertEquals(75, grade(students.get(1), courseId));
+        assertEquals(0, grade(students.get(2), courseId));
+    }
+
+    @Test
+    void updateCourseAndEnrollmentsRaisesEveryGrade() {
+        UUID courseId = newCourse("Raise " + UUID.randomUUID(), 2).getId();
+        List<UUID> students = enroll(courseId, 2);
+
+        universityService.updateCourseAndEnrollments(courseId, "Raised", null);
+
+        for (UUID studentId : students) assertEquals(1, grade(studentId, courseId));
+    }
+
+    @Test
+    void failedNestedUpdateOnlyRollsBackToItsSavepoint() {
+        UUID courseId = newCourse("Savepoint " + UUID.randomUUID(), 1).getId();
+        enroll(courseId, 1);
+
+        // Without a savepoint the failure would mark the outer transaction rollback-only and its commit would throw
+        UUID keptCourseId = new TransactionTemplate(transactionManager).execute(status -> {
+            UUID id = newCourse("Kept " + UUID.randomUUID(), 1).getId();
+            assertThrows(IllegalStateException.class, () -> universityService.updateEnrollmentsInChunks(courseId, enrollment -> {
+                throw new IllegalStateException("Rejected");
+            }));
+            return id;
+        });
+
+        assertEquals(1, seatsLeft(keptCourseId));
+    }
+
+    private List<UUID> enroll(UUID courseId, int count) {
+        List<UUID> students = newStudents(count);
+        students.forEach(studentId -> universityService.enrollStudentInCourse(studentId, courseId));
+        return students;
+    }
+
+    private int grade(UUID studentId, UUID courseId) {
+        return jdbcTemplate.queryForObject("SELECT grade FROM university.enrollments WHERE student_id = ? AND course_id = ?",
+                Integer.class, studentId, courseId);
+    }
+}
@@ -0,0 +1,36 @@
+package com.project.mvc.services.audit;
+
+import com.project.mvc.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Codes of the smallint identity are only taken by actions that are new; a fresh dictionary, as after a restart, looks known actions up.
+ */
+class LogActionDictionaryTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void knownActionsTakeNoNewCode() {
+        String action = "Dictionary Test " + UUID.randomUUID();
+        short code = new LogActionDictionary(jdbcTemplate, transactionManager).codeOf(action);
+        long lastCode = lastCode();
+
+        for (int restart = 0; restart < 10; restart++) {
+            assertEquals(code, new LogActionDictionary(jdbcTemplate, transactionManager).codeOf(action));
+        }
+        assertEquals(lastCode, lastCode());
+    }
+
+    private long lastCode() {
+        String sequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence('university.log_actions', 'code')", String.class);
+        return jdbcTemplate.queryForObject("SELECT last_value FROM " + sequence, Long.class);
+    }
+}